@@ -0,0 +1,49 @@
+package com.example.demo;
+
+import com.example.demo.model.Tool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChargeDaysBenchmark {
+
+    @Param({"1", "7", "30", "90", "365", "730", "3650"})
+    int rentalDays;
+
+    RentalAgreementService rentalAgreementService;
+    Tool tool;
+    LocalDate checkoutDate;
+    LocalDate dueDate;
+
+    @Setup
+    public void setup() {
+        tool = new Tool("JAKD", "Jackhammer", "DeWalt", new BigDecimal("2.99"), true, false, false);
+        checkoutDate = LocalDate.of(2015, 7, 2);
+        dueDate = checkoutDate.plusDays(rentalDays);
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(tool)));
+    }
+
+    @Benchmark
+    public int calculateChargeDays() {
+        return rentalAgreementService.calculateChargeDays(tool, checkoutDate, dueDate);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    @Param({"5", "30", "365"})
+    int rentalDays;
+
+    @Param({"BIG_DECIMAL", "FIXED_POINT"})
+    PricingMode pricingMode;
+
+    /**
+     * Compare "0" (no metrics) with "1" (every checkout timed), "64" and "1024" (the default sample rate) to see what
+     * the instrumentation costs.
+     */
+    @Param({"0", "1", "64", "1024"})
+    int metricsSampleRate;
+
+    RentalAgreementService rentalAgreementService;
+    Tool tool;
+    LocalDate checkoutDate;
+
+    @Setup
+    public void setup() {
+        tool = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+        checkoutDate = LocalDate.of(2020, 7, 2);
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(tool)),
+                RentalAgreementSink.NO_OP, pricingMode, null, null,
+                metricsSampleRate == 0 ? CheckoutMetrics.DISABLED : new CheckoutMetrics(new SimpleMeterRegistry(), metricsSampleRate), null, null);
+    }
+
+    @Benchmark
+    public RentalAgreement checkout() {
+        return rentalAgreementService.checkout(tool, rentalDays, 10, checkoutDate);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo;
+
+import com.example.demo.model.CompactRentalAgreement;
+import com.example.demo.model.Tool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates {@code rows} rentals spread over eight years of checkouts in a {@link RentalAgreementColumnStore}.
+ * The fork reserves enough direct memory for 50M rows at 33 bytes each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=3g")
+public class ColumnStoreBenchmark {
+
+    @Param({"1000000", "50000000"})
+    int rows;
+
+    RentalAgreementColumnStore columnStore;
+
+    @Setup
+    public void setup() {
+        Tool[] tools = {
+                new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false),
+                new Tool("CHNS", "Chainsaw", "Stihl", new BigDecimal("1.49"), true, false, true),
+                new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false)
+        };
+        columnStore = new RentalAgreementColumnStore();
+        Random random = new Random(20);
+        for (int i = 0; i < rows; i++) {
+            Tool tool = tools[random.nextInt(tools.length)];
+            int rentalDays = 1 + random.nextInt(30);
+            long preDiscountCharge = tool.getDailyCharge().unscaledValue().longValue() * rentalDays;
+            int discountPercent = random.nextInt(101);
+            columnStore.append(new CompactRentalAgreement(tool, 16_000 + random.nextInt(3000), rentalDays, rentalDays, discountPercent,
+                    preDiscountCharge, FixedPointPricing.divideHalfUp(preDiscountCharge * discountPercent, 100)));
+        }
+    }
+
+    @Benchmark
+    public SortedMap<String, SortedMap<YearMonth, BigDecimal>> revenueByToolTypeAndMonth() {
+        return columnStore.revenueByToolTypeAndMonth();
+    }
+
+    @Benchmark
+    public BigDecimal totalDiscount() {
+        return columnStore.totalDiscount();
+    }
+}
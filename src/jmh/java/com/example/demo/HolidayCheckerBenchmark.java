@@ -0,0 +1,59 @@
+package com.example.demo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each invocation checks every day of one year, so scores are per 365 lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HolidayCheckerBenchmark {
+
+    HolidayCheckerService holidayCheckerService;
+    LocalDate[] dates;
+
+    @Setup
+    public void setup() {
+        holidayCheckerService = new HolidayCheckerService();
+        dates = new LocalDate[365];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.of(2023, 1, 1).plusDays(i);
+        }
+    }
+
+    @Benchmark
+    public void isIndependenceDayOrLaborDay(Blackhole blackhole) {
+        for (LocalDate date : dates) {
+            blackhole.consume(holidayCheckerService.isIndependenceDay(date) || holidayCheckerService.isLaborDay(date));
+        }
+    }
+
+    @Benchmark
+    public void isHoliday(Blackhole blackhole) {
+        for (LocalDate date : dates) {
+            blackhole.consume(holidayCheckerService.isHoliday(date));
+        }
+    }
+
+    @Benchmark
+    public int countHolidays() {
+        return holidayCheckerService.countHolidays(dates[0], dates[dates.length - 1]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutRequest;
+import com.example.demo.model.CheckoutResult;
+import com.example.demo.model.Tool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a batch of 10,000 rows of which {@code invalidPercent} fail validation, once through
+ * {@link RentalAgreementService#checkoutBatch(List)} and once row by row through {@code checkout}, catching the
+ * validation exceptions as older importers do. Compare 0 with 30 to see what invalid rows cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvalidRowsBenchmark {
+
+    @Param({"0", "30"})
+    int invalidPercent;
+
+    RentalAgreementService rentalAgreementService;
+    List<CheckoutRequest> checkoutRequests;
+
+    @Setup
+    public void setup() {
+        Tool tool = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(tool)));
+        Random random = new Random(18);
+        checkoutRequests = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            boolean invalid = random.nextInt(100) < invalidPercent;
+            checkoutRequests.add(new CheckoutRequest(tool, invalid ? 0 : 1 + random.nextInt(30), random.nextInt(101),
+                    LocalDate.of(2020, 1, 1).plusDays(random.nextInt(365))));
+        }
+    }
+
+    @Benchmark
+    public List<CheckoutResult> checkoutBatch() {
+        return rentalAgreementService.checkoutBatch(checkoutRequests);
+    }
+
+    @Benchmark
+    public int checkoutEachCatchingExceptions() {
+        int rejected = 0;
+        for (CheckoutRequest checkoutRequest : checkoutRequests) {
+            try {
+                rentalAgreementService.checkout(checkoutRequest.getTool(), checkoutRequest.getRentalDays(),
+                        checkoutRequest.getDiscountPercent(), checkoutRequest.getCheckoutDate());
+            } catch (IllegalArgumentException e) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+}
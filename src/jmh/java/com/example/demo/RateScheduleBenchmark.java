@@ -0,0 +1,59 @@
+package com.example.demo;
+
+import com.example.demo.model.RatePeriod;
+import com.example.demo.model.Tool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums a scheduled tool's charge for rentals of increasing length starting in spring; the 90 day rental crosses the
+ * spring, summer and peak weekend periods and should cost about the same as the 3 day one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateScheduleBenchmark {
+
+    @Param({"3", "90", "3650"})
+    int rentalDays;
+
+    Tool tool;
+    RateSchedule rateSchedule;
+    HolidayCalendarIndex holidayCalendar;
+    long checkoutDay;
+
+    @Setup
+    public void setup() {
+        tool = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+        rateSchedule = RateScheduleCompiler.compile(List.of(
+                new RatePeriod("Spring", "LADW", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 5, 31), new BigDecimal("1.49"), null),
+                new RatePeriod("Summer", "LADW", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 8, 31), new BigDecimal("2.49"),
+                        new BigDecimal("2.99")),
+                new RatePeriod("Fourth of July weekend", "LADW", LocalDate.of(2024, 7, 4), LocalDate.of(2024, 7, 7),
+                        new BigDecimal("2.49"), new BigDecimal("3.99")))).get("LADW");
+        holidayCalendar = HolidayRuleCompiler.compile(HolidayCheckerService.DEFAULT_HOLIDAY_RULES);
+        checkoutDay = LocalDate.of(2024, 5, 20).toEpochDay();
+    }
+
+    @Benchmark
+    public BigDecimal preDiscountCharge() {
+        return rateSchedule.preDiscountCharge(tool, holidayCalendar, checkoutDay, checkoutDay + rentalDays);
+    }
+}
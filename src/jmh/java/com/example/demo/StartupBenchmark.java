@@ -0,0 +1,41 @@
+package com.example.demo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from a cold JVM to the end of a small batch run: each fork measures a single call, so the classes and code
+ * it needs are loaded, linked and interpreted for the first time inside the measurement. Compares the plain-Java
+ * {@link BatchPricingCli} pricing 5000 rows with booting the Spring application context alone.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 10, jvmArgsAppend = "-XX:TieredStopAtLevel=1")
+public class StartupBenchmark {
+
+    @Benchmark
+    public int batchPricingCli() {
+        return BatchPricingCli.run(new String[]{"--train"}, new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Benchmark
+    public void springContext() {
+        try (ConfigurableApplicationContext context = SpringApplication.run(Main.class, "--rental.http.enabled=false",
+                "--rental.agreement-sink.type=none", "--logging.level.root=WARN")) {
+            context.getBean(RentalAgreementService.class);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands agreements to a background writer thread through a bounded queue. {@link #accept} never blocks: when
+ * the queue is full the agreement is dropped and counted rather than stalling checkout. Agreements the delegate
+ * fails to write are counted as dropped too, and the failure is logged.
+ */
+public class AsyncRentalAgreementSink implements RentalAgreementSink {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncRentalAgreementSink.class);
+    private static final int MAX_DRAIN = 256;
+
+    private final BlockingQueue<RentalAgreement> queue;
+    private final RentalAgreementSink delegate;
+    private final Thread writerThread;
+    private final AtomicLong droppedAgreements = new AtomicLong();
+    private volatile boolean closed;
+
+    public AsyncRentalAgreementSink(RentalAgreementSink delegate, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.delegate = delegate;
+        this.writerThread = new Thread(this::drainQueue, "rental-agreement-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void accept(RentalAgreement rentalAgreement) {
+        if (closed || !queue.offer(rentalAgreement)) {
+            droppedAgreements.incrementAndGet();
+        }
+    }
+
+    public long getDroppedAgreements() {
+        return droppedAgreements.get();
+    }
+
+    /**
+     * Stops accepting agreements and waits for the ones already queued to be written.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    private void drainQueue() {
+        List<RentalAgreement> batch = new ArrayList<>(MAX_DRAIN);
+        int written = 0;
+        while (!closed || !queue.isEmpty()) {
+            try {
+                RentalAgreement first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_DRAIN - 1);
+                for (; written < batch.size(); written++) {
+                    delegate.accept(batch.get(written));
+                }
+                batch.clear();
+                written = 0;
+                if (queue.isEmpty()) {
+                    delegate.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                int unwritten = batch.size() - written;
+                droppedAgreements.addAndGet(unwritten);
+                LOGGER.warn("Dropped {} rental agreements the writer failed to write", unwritten, e);
+                batch.clear();
+                written = 0;
+            }
+        }
+        delegate.flush();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.demo;
+
+import com.example.demo.model.QuoteFileSummary;
+import com.example.demo.model.Tool;
+import org.springframework.boot.context.properties.bind.BindException;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Prices a quote file without starting Spring, for short batch runs where booting the application context would take
+ * longer than the pricing:
+ * <pre>
+ *   java -cp ... com.example.demo.BatchPricingCli [--tools tools.csv] [--config application.properties] [--parallelism n]
+ *       [--chunk-rows n] input.csv output.csv
+ * </pre>
+ * The services are wired by hand. Holidays ({@code rental.holidays}, {@code rental.regional-holidays},
+ * {@code rental.store-regions}), promotions ({@code rental.promotions}) and rate periods ({@code rental.rate-periods})
+ * are bound exactly as the application binds them, from the properties file {@code --config} names or else from the
+ * {@code application.properties} on the classpath, so a row is priced as the application would price it. The
+ * {@code tools.csv} catalog comes from the classpath unless {@code --tools} names a file; there is no agreement
+ * sink, quote cache, reservations or metrics. Input and output are as described on {@link QuoteFilePipeline}. {@code --train} prices generated rows and writes nothing;
+ * the {@code cds} Maven profile runs it to record the classes a pricing run loads into an AppCDS archive.
+ * <p>
+ * Exits with 0 when the file was priced (rejected rows included), 1 if it or the configuration could not be read or
+ * written and 2 for invalid arguments or configuration. A one-line summary with the time taken goes to standard error.
+ */
+public final class BatchPricingCli {
+    static final String USAGE = "Usage: BatchPricingCli [--tools tools.csv] [--config application.properties] [--parallelism n] [--chunk-rows n]"
+            + " (input.csv output.csv | --train)";
+
+    private static final int TRAINING_ROWS = 5000;
+
+    private BatchPricingCli() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.err));
+    }
+
+    static int run(String[] args, PrintStream log) {
+        Path toolsFile = null;
+        Path configFile = null;
+        int parallelism = 0;
+        int chunkRows = 4096;
+        boolean train = false;
+        String[] files = new String[2];
+        int fileCount = 0;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--tools":
+                        toolsFile = Paths.get(value(args, ++i));
+                        break;
+                    case "--config":
+                        configFile = Paths.get(value(args, ++i));
+                        break;
+                    case "--parallelism":
+                        parallelism = Integer.parseInt(value(args, ++i));
+                        break;
+                    case "--chunk-rows":
+                        chunkRows = Integer.parseInt(value(args, ++i));
+                        break;
+                    case "--train":
+                        train = true;
+                        break;
+                    default:
+                        if (args[i].startsWith("--") || fileCount == files.length) {
+                            throw new IllegalArgumentException("Unexpected argument '" + args[i] + "'.");
+                        }
+                        files[fileCount++] = args[i];
+                }
+            }
+            if (train ? fileCount != 0 : fileCount != 2) {
+                throw new IllegalArgumentException("Please give an input and an output file, or --train.");
+            }
+
+            long startNanos = System.nanoTime();
+            ToolCatalog toolCatalog = toolCatalog(toolsFile);
+            QuoteFilePipeline quoteFilePipeline = new QuoteFilePipeline(rentalAgreementService(toolCatalog, configuration(configFile)),
+                    chunkRows, parallelism);
+            QuoteFileSummary summary = train
+                    ? quoteFilePipeline.run(new StringReader(trainingRows(toolCatalog.getTools())), Writer.nullWriter())
+                    : quoteFilePipeline.run(Paths.get(files[0]), Paths.get(files[1]));
+            log.println("Priced " + summary.getRows() + " rows (" + summary.getRejectedRows() + " rejected) in "
+                    + Duration.ofNanos(System.nanoTime() - startNanos).toMillis() + " ms.");
+            return 0;
+        } catch (IllegalArgumentException e) {
+            log.println(e.getMessage());
+            log.println(USAGE);
+            return 2;
+        } catch (IOException e) {
+            log.println("Could not price the quote file: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Please give a value for " + args[index - 1] + ".");
+        }
+        return args[index];
+    }
+
+    /**
+     * The services the application would build from the same {@code rental.*} properties, minus everything pricing a
+     * quote file does not use.
+     */
+    private static RentalAgreementService rentalAgreementService(ToolCatalog toolCatalog, Properties configuration) {
+        Binder binder = new Binder(new MapConfigurationPropertySource(configuration));
+        try {
+            HolidayRuleProperties holidayRuleProperties = binder.bind("rental", Bindable.ofInstance(new HolidayRuleProperties()))
+                    .orElse(new HolidayRuleProperties());
+            PromotionProperties promotionProperties = binder.bind("rental", Bindable.ofInstance(new PromotionProperties()))
+                    .orElse(new PromotionProperties());
+            RatePeriodProperties ratePeriodProperties = binder.bind("rental", Bindable.ofInstance(new RatePeriodProperties()))
+                    .orElse(new RatePeriodProperties());
+            return new RentalAgreementService(new HolidayCheckerService(holidayRuleProperties), toolCatalog, RentalAgreementSink.NO_OP,
+                    PricingMode.BIG_DECIMAL, null, null, CheckoutMetrics.DISABLED, new PromotionService(promotionProperties),
+                    new RateScheduleService(ratePeriodProperties));
+        } catch (BindException e) {
+            throw new IllegalArgumentException("Please fix the rental configuration: " + e.getMessage(), e);
+        }
+    }
+
+    private static Properties configuration(Path configFile) throws IOException {
+        Properties configuration = new Properties();
+        if (configFile != null) {
+            try (Reader reader = Files.newBufferedReader(configFile, StandardCharsets.UTF_8)) {
+                configuration.load(reader);
+            }
+            return configuration;
+        }
+        try (InputStream inputStream = BatchPricingCli.class.getResourceAsStream("/application.properties")) {
+            if (inputStream != null) {
+                configuration.load(inputStream);
+            }
+        }
+        return configuration;
+    }
+
+    private static ToolCatalog toolCatalog(Path toolsFile) throws IOException {
+        if (toolsFile != null) {
+            return ToolCatalog.read(Files.newInputStream(toolsFile));
+        }
+        InputStream inputStream = BatchPricingCli.class.getResourceAsStream("/tools.csv");
+        if (inputStream == null) {
+            throw new IOException("tools.csv is not on the classpath; please give --tools.");
+        }
+        return ToolCatalog.read(inputStream);
+    }
+
+    /**
+     * Valid and invalid rows for every catalog tool across a few years of checkout dates.
+     */
+    private static String trainingRows(List<Tool> tools) {
+        StringBuilder rows = new StringBuilder(TRAINING_ROWS * 24);
+        LocalDate firstCheckoutDate = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < TRAINING_ROWS; i++) {
+            String toolCode = tools.isEmpty() || i % 100 == 99 ? "XXXX" : tools.get(i % tools.size()).getToolCode();
+            rows.append(toolCode).append(',').append(firstCheckoutDate.plusDays(i % 2000)).append(',')
+                    .append(i % 50).append(',').append(i % 110).append('\n');
+        }
+        return rows.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Renders agreements into one reusable {@link StringBuilder}, encodes them as UTF-8 into a reusable direct
+ * {@link ByteBuffer} and writes the buffer to a channel whenever it fills up. Intended for bulk exports such as
+ * receipt and audit files. Closing the sink flushes and closes the channel.
+ */
+public class ChannelRentalAgreementSink implements RentalAgreementSink {
+    private final WritableByteChannel channel;
+    private final RentalAgreementFormat format;
+    private final StringBuilder renderBuffer = new StringBuilder(1024);
+    private final ByteBuffer byteBuffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    public ChannelRentalAgreementSink(WritableByteChannel channel, RentalAgreementFormat format, int bufferSize) {
+        this.channel = channel;
+        this.format = format;
+        this.byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Creates or truncates the file at {@code path}; CSV files start with {@link RentalAgreementRenderer#CSV_HEADER}.
+     */
+    public static ChannelRentalAgreementSink open(Path path, RentalAgreementFormat format) throws IOException {
+        FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ChannelRentalAgreementSink sink = new ChannelRentalAgreementSink(fileChannel, format, 256 * 1024);
+        if (format == RentalAgreementFormat.CSV) {
+            synchronized (sink) {
+                sink.renderBuffer.append(RentalAgreementRenderer.CSV_HEADER).append('\n');
+                sink.encodeRenderBuffer();
+            }
+        }
+        return sink;
+    }
+
+    @Override
+    public synchronized void accept(RentalAgreement rentalAgreement) {
+        RentalAgreementRenderer.append(rentalAgreement, format, renderBuffer);
+        encodeRenderBuffer();
+    }
+
+    @Override
+    public synchronized void flush() {
+        writeByteBuffer();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to close rental agreement channel.", e);
+        }
+    }
+
+    private void encodeRenderBuffer() {
+        CharBuffer chars = CharBuffer.wrap(renderBuffer);
+        encoder.reset();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, byteBuffer, true);
+            if (result.isOverflow()) {
+                writeByteBuffer();
+            }
+        } while (result.isOverflow());
+        renderBuffer.setLength(0);
+    }
+
+    private void writeByteBuffer() {
+        byteBuffer.flip();
+        try {
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write rental agreements.", e);
+        } finally {
+            byteBuffer.clear();
+        }
+    }
+}
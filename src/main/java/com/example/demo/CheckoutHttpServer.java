@@ -0,0 +1,319 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutError;
+import com.example.demo.model.CheckoutRequest;
+import com.example.demo.model.CheckoutResult;
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves checkouts over HTTP using the JDK's built-in server, so the application needs no servlet container.
+ * <ul>
+ *     <li>{@code POST /checkout} takes one request object and returns its agreement. It fails if the tool is
+ *     already booked for any of the days but does not reserve it, so quotes can be repeated freely.</li>
+ *     <li>{@code POST /book} does the same and reserves the tool for the rental period, failing if it is already
+ *     reserved for any of the days.</li>
+ *     <li>{@code POST /checkout/batch} takes an array of request objects and returns an array holding an agreement
+ *     or an {@code {"error": ...}} object for each, in request order.</li>
+ *     <li>{@code GET /health} returns {@code {"status":"UP"}}.</li>
+ * </ul>
+ * A request object has {@code toolCode}, {@code rentalDays}, {@code discountPercent} (default 0), an ISO-8601
+ * {@code checkoutDate}, and optionally a {@code loyaltyCode} and the {@code storeId} whose holidays apply; agreements are rendered like {@link RentalAgreementFormat#JSON}.
+ * <p>
+ * Each exchange runs on its own virtual thread when the JVM supports them (Java 21+); on older runtimes a fixed pool
+ * of platform threads is used instead. The server listens on {@code rental.http.port} and can be turned off with
+ * {@code rental.http.enabled=false}. Request bodies larger than {@code rental.http.max-body-bytes} are refused with
+ * {@code 413} without being read in full.
+ */
+@Component
+public class CheckoutHttpServer {
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    static final int DEFAULT_MAX_BODY_BYTES = 1024 * 1024;
+
+    private final RentalAgreementService rentalAgreementService;
+    private final boolean enabled;
+    private final int port;
+    private final int maxBodyBytes;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @Autowired
+    public CheckoutHttpServer(RentalAgreementService rentalAgreementService,
+                              @Value("${rental.http.enabled:true}") boolean enabled,
+                              @Value("${rental.http.port:8080}") int port,
+                              @Value("${rental.http.max-body-bytes:1048576}") int maxBodyBytes) {
+        if (maxBodyBytes < 1) {
+            throw new IllegalArgumentException("Please configure rental.http.max-body-bytes as a positive number of bytes.");
+        }
+        this.rentalAgreementService = rentalAgreementService;
+        this.enabled = enabled;
+        this.port = port;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * @param port the port to listen on, or 0 for any free port
+     */
+    public CheckoutHttpServer(RentalAgreementService rentalAgreementService, int port) {
+        this(rentalAgreementService, port, DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * @param port         the port to listen on, or 0 for any free port
+     * @param maxBodyBytes the largest request body accepted
+     */
+    public CheckoutHttpServer(RentalAgreementService rentalAgreementService, int port, int maxBodyBytes) {
+        this(rentalAgreementService, true, port, maxBodyBytes);
+    }
+
+    @PostConstruct
+    public synchronized void start() throws IOException {
+        if (!enabled || server != null) {
+            return;
+        }
+        executor = newRequestExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        server.createContext("/checkout", exchange -> handle(exchange, "POST", this::checkout));
+        server.createContext("/book", exchange -> handle(exchange, "POST", this::book));
+        server.createContext("/checkout/batch", exchange -> handle(exchange, "POST", this::checkoutBatch));
+        server.createContext("/health", exchange -> handle(exchange, "GET", body -> "{\"status\":\"UP\"}"));
+        server.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * @return the port the server is listening on, or -1 if it is not running
+     */
+    public synchronized int getPort() {
+        return server == null ? -1 : server.getAddress().getPort();
+    }
+
+    private String checkout(String body) {
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(toSingleCheckoutRequest(body));
+        return RentalAgreementRenderer.appendJsonObject(rentalAgreement, new StringBuilder(512)).toString();
+    }
+
+    private String book(String body) {
+        RentalAgreement rentalAgreement = rentalAgreementService.book(toSingleCheckoutRequest(body));
+        return RentalAgreementRenderer.appendJsonObject(rentalAgreement, new StringBuilder(512)).toString();
+    }
+
+    private CheckoutRequest toSingleCheckoutRequest(String body) {
+        List<Map<String, String>> objects = FlatJsonParser.parseObjects(body);
+        if (objects.size() != 1) {
+            throw new IllegalArgumentException("Please send exactly one checkout request. Use /checkout/batch for several.");
+        }
+        return toCheckoutRequest(objects.get(0));
+    }
+
+    /**
+     * Requests that cannot be read (unknown tool, malformed field) are answered with their error in place; the rest
+     * are priced together through {@link RentalAgreementService#checkoutBatch(List)}.
+     */
+    private String checkoutBatch(String body) {
+        List<Map<String, String>> objects = FlatJsonParser.parseObjects(body);
+        IllegalArgumentException[] errors = new IllegalArgumentException[objects.size()];
+        List<CheckoutRequest> checkoutRequests = new ArrayList<>(objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            try {
+                checkoutRequests.add(toCheckoutRequest(objects.get(i)));
+            } catch (IllegalArgumentException e) {
+                errors[i] = e;
+            }
+        }
+
+        List<CheckoutResult> results = rentalAgreementService.checkoutBatch(checkoutRequests);
+
+        StringBuilder response = new StringBuilder(objects.size() * 320 + 2).append('[');
+        int resultIndex = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            if (errors[i] != null) {
+                appendError(response, errors[i]);
+                continue;
+            }
+            CheckoutResult result = results.get(resultIndex++);
+            if (result.isValid()) {
+                RentalAgreementRenderer.appendJsonObject(result.getRentalAgreement(), response);
+            } else {
+                appendError(response, result.getErrorMessage(), result.getError());
+            }
+        }
+        return response.append(']').toString();
+    }
+
+    private CheckoutRequest toCheckoutRequest(Map<String, String> object) {
+        Tool tool = rentalAgreementService.getToolCatalog().findTool(requiredField(object, "toolCode"));
+        if (tool == null) {
+            throw new CheckoutValidationException(CheckoutError.UNKNOWN_TOOL);
+        }
+        return new CheckoutRequest(tool, intField(object, "rentalDays", null), intField(object, "discountPercent", 0),
+                dateField(object), object.get("loyaltyCode"), object.get("storeId"));
+    }
+
+    private static String requiredField(Map<String, String> object, String name) {
+        String value = object.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Please provide the " + name + " field.");
+        }
+        return value;
+    }
+
+    private static int intField(Map<String, String> object, String name, Integer defaultValue) {
+        String value = object.get(name);
+        if (value == null && defaultValue != null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(requiredField(object, name));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Please provide a whole number for the " + name + " field.");
+        }
+    }
+
+    private static LocalDate dateField(Map<String, String> object) {
+        try {
+            return LocalDate.parse(requiredField(object, "checkoutDate"));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Please provide the checkoutDate field as an ISO-8601 date (yyyy-MM-dd).");
+        }
+    }
+
+    private static StringBuilder appendError(StringBuilder target, String message) {
+        return appendError(target, message, null);
+    }
+
+    private static StringBuilder appendError(StringBuilder target, IllegalArgumentException exception) {
+        return appendError(target, exception.getMessage(),
+                exception instanceof CheckoutValidationException validationException ? validationException.getError() : null);
+    }
+
+    /**
+     * {@code {"error": message}}, plus {@code "code"} naming the {@link CheckoutError} when there is one.
+     */
+    private static StringBuilder appendError(StringBuilder target, String message, CheckoutError error) {
+        RentalAgreementRenderer.appendJsonString(target.append("{\"error\":"), message);
+        if (error != null) {
+            target.append(",\"code\":\"").append(error.name()).append('"');
+        }
+        return target.append('}');
+    }
+
+    private void handle(HttpExchange exchange, String method, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            int status;
+            String response;
+            if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+                status = 404;
+                response = appendError(new StringBuilder(), "No endpoint at " + exchange.getRequestURI().getPath() + ".").toString();
+            } else if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                status = 405;
+                response = appendError(new StringBuilder(), "Please use " + method + " for this endpoint.").toString();
+            } else {
+                try {
+                    byte[] body = readBody(exchange);
+                    if (body == null) {
+                        status = 413;
+                        response = appendError(new StringBuilder(),
+                                "Please send a request body of at most " + maxBodyBytes + " bytes.").toString();
+                    } else {
+                        response = endpoint.respond(new String(body, StandardCharsets.UTF_8));
+                        status = 200;
+                    }
+                } catch (IllegalArgumentException e) {
+                    status = 400;
+                    response = appendError(new StringBuilder(), e).toString();
+                } catch (RuntimeException e) {
+                    status = 500;
+                    response = appendError(new StringBuilder(), "The checkout could not be completed.").toString();
+                }
+            }
+
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * @return the request body, or null if it is larger than {@code maxBodyBytes}; a declared
+     * {@code Content-Length} over the limit is refused before anything is read
+     */
+    private byte[] readBody(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > maxBodyBytes) {
+                    return null;
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Please send a numeric Content-Length header.");
+            }
+        }
+        byte[] body = exchange.getRequestBody().readNBytes(maxBodyBytes + 1);
+        return body.length > maxBodyBytes ? null : body;
+    }
+
+    /**
+     * A virtual-thread-per-task executor where the runtime has one, looked up reflectively so the code still
+     * compiles for Java 17.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 4, runnable -> {
+                Thread thread = new Thread(runnable, "checkout-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        String respond(String body);
+    }
+}
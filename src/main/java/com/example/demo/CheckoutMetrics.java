@@ -0,0 +1,165 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutError;
+import com.example.demo.model.RentalAgreement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the checkout hot paths:
+ * <ul>
+ *     <li>{@code rental.checkouts} (counter) and {@code rental.checkout} (timer), tagged by {@code toolType}</li>
+ *     <li>{@code rental.charge-days} (timer) around the charge-day computation</li>
+ *     <li>{@code rental.holiday.lookups} (counter) for holiday calendar queries</li>
+ *     <li>{@code rental.validation.failures} (counter), tagged by the {@link CheckoutError#getRule() rule} that failed</li>
+ *     <li>{@code rental.agreement.render} (timer) around rendering and writing an agreement in the sink</li>
+ * </ul>
+ * Even an uncontended atomic increment is a noticeable share of a checkout that is served from the quote cache, so
+ * the success path is sampled: only one in {@code rental.metrics.sample-rate} events, picked at random, is timed,
+ * and the checkout and holiday lookup counters are advanced by the sample rate when it is. Timer percentiles stay
+ * representative and counter rates are unbiased estimates; a sample rate of 1 makes them exact. The default of 1024
+ * keeps the cost of the occasional timed checkout well under a nanosecond per checkout. Validation failures
+ * are rare and always counted. Timers publish percentile histograms for server-side aggregation plus p50/p95/p99
+ * for local inspection.
+ */
+@Component
+public class CheckoutMetrics {
+    /**
+     * Records nothing; used when a service is built without a registry.
+     */
+    public static final CheckoutMetrics DISABLED = new CheckoutMetrics();
+
+    static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    private final MeterRegistry meterRegistry;
+    private final int sampleRate;
+    private final Map<String, ToolTypeMeters> toolTypeMeters = new ConcurrentHashMap<>();
+    private final Timer chargeDaysTimer;
+    private final Timer renderTimer;
+    private final Counter holidayLookups;
+    private final Counter[] validationFailures;
+
+    /**
+     * @param sampleRate time one in this many events; 1 times every event
+     */
+    @Autowired
+    public CheckoutMetrics(MeterRegistry meterRegistry, @Value("${rental.metrics.sample-rate:1024}") int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("Please choose a metrics sample rate of 1 or greater.");
+        }
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.chargeDaysTimer = timer("rental.charge-days").register(meterRegistry);
+        this.renderTimer = timer("rental.agreement.render").register(meterRegistry);
+        this.holidayLookups = Counter.builder("rental.holiday.lookups").register(meterRegistry);
+        this.validationFailures = new Counter[CheckoutError.values().length];
+        for (CheckoutError error : CheckoutError.values()) {
+            validationFailures[error.ordinal()] = Counter.builder("rental.validation.failures").tag("rule", error.getRule()).register(meterRegistry);
+        }
+    }
+
+    private CheckoutMetrics() {
+        this.meterRegistry = null;
+        this.sampleRate = 1;
+        this.chargeDaysTimer = null;
+        this.renderTimer = null;
+        this.holidayLookups = null;
+        this.validationFailures = null;
+    }
+
+    /**
+     * @return the start time to pass to one of the {@code record} methods, or {@link #NOT_SAMPLED} if this event
+     * is not timed
+     */
+    public long start() {
+        return isSampled() ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    public void recordCheckout(String toolType, long startNanos) {
+        if (startNanos == NOT_SAMPLED) {
+            return;
+        }
+        String toolTypeTag = toolType == null ? "unknown" : toolType;
+        ToolTypeMeters meters = toolTypeMeters.get(toolTypeTag);
+        if (meters == null) {
+            meters = toolTypeMeters.computeIfAbsent(toolTypeTag, this::toolTypeMeters);
+        }
+        meters.checkouts.increment(sampleRate);
+        meters.checkoutTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordChargeDays(long startNanos) {
+        if (startNanos != NOT_SAMPLED) {
+            chargeDaysTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordHolidayLookups(int lookups) {
+        if (lookups > 0 && isSampled()) {
+            holidayLookups.increment((double) lookups * sampleRate);
+        }
+    }
+
+    public void recordValidationFailure(CheckoutError error) {
+        if (meterRegistry != null) {
+            validationFailures[error.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Wraps a sink so the time spent rendering and writing each agreement is recorded.
+     */
+    public RentalAgreementSink instrument(RentalAgreementSink delegate) {
+        if (meterRegistry == null) {
+            return delegate;
+        }
+        return new RentalAgreementSink() {
+            @Override
+            public void accept(RentalAgreement rentalAgreement) {
+                long startNanos = start();
+                delegate.accept(rentalAgreement);
+                if (startNanos != NOT_SAMPLED) {
+                    renderTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+
+            @Override
+            public void flush() {
+                delegate.flush();
+            }
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        };
+    }
+
+    private boolean isSampled() {
+        return meterRegistry != null && (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0);
+    }
+
+    private ToolTypeMeters toolTypeMeters(String toolType) {
+        return new ToolTypeMeters(
+                Counter.builder("rental.checkouts").tag("toolType", toolType).register(meterRegistry),
+                timer("rental.checkout").tag("toolType", toolType).register(meterRegistry));
+    }
+
+    private static Timer.Builder timer(String name) {
+        return Timer.builder(name)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99);
+    }
+
+    private record ToolTypeMeters(Counter checkouts, Timer checkoutTimer) {
+    }
+}
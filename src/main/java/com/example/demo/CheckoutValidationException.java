@@ -0,0 +1,25 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutError;
+
+/**
+ * Thrown by {@code checkout} for invalid input. Validation failures are expected, frequent in bulk imports and
+ * fully described by their {@link CheckoutError}, so no stack trace is captured.
+ */
+public class CheckoutValidationException extends IllegalArgumentException {
+    private final CheckoutError error;
+
+    public CheckoutValidationException(CheckoutError error) {
+        super(error.getMessage());
+        this.error = error;
+    }
+
+    public CheckoutError getError() {
+        return error;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
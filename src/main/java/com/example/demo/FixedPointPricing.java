@@ -0,0 +1,84 @@
+package com.example.demo;
+
+import com.example.demo.model.CompactRentalAgreement;
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+
+import java.math.BigDecimal;
+
+/**
+ * Computes the pre-discount charge, discount amount and final charge with long arithmetic on the daily charge's
+ * unscaled value (cents for a charge such as 1.99), rounding the discount HALF_UP at the daily charge's scale
+ * exactly as the {@link BigDecimal} path does. Amounts are converted to {@link BigDecimal} only when they are set on
+ * the {@link RentalAgreement}.
+ */
+public class FixedPointPricing {
+    private static final long MAX_UNSCALED_DAILY_CHARGE = Long.MAX_VALUE / 100;
+
+    /**
+     * Sets the three charge amounts on {@code rentalAgreement}.
+     *
+     * @return false, leaving the agreement untouched, when the amounts could overflow a long
+     */
+    public static boolean applyCharges(BigDecimal dailyCharge, int chargeDays, int discountPercent, RentalAgreement rentalAgreement) {
+        if (!fits(dailyCharge, chargeDays)) {
+            return false;
+        }
+        long unscaledDailyCharge = dailyCharge.unscaledValue().longValue();
+
+        int scale = dailyCharge.scale();
+        long preDiscountCharge = unscaledDailyCharge * chargeDays;
+        long discountAmount = divideHalfUp(preDiscountCharge * discountPercent, 100);
+        long finalCharge = preDiscountCharge - discountAmount;
+
+        rentalAgreement.setPreDiscountCharge(BigDecimal.valueOf(preDiscountCharge, scale));
+        rentalAgreement.setDiscountAmount(BigDecimal.valueOf(discountAmount, scale));
+        rentalAgreement.setFinalCharge(BigDecimal.valueOf(finalCharge, scale));
+        return true;
+    }
+
+    /**
+     * Prices straight into the compact form, so no {@link BigDecimal} is created.
+     *
+     * @return null when the amounts could overflow a long
+     */
+    public static CompactRentalAgreement price(Tool tool, int checkoutEpochDay, int rentalDays, int chargeDays, int discountPercent) {
+        BigDecimal dailyCharge = tool.getDailyCharge();
+        if (!fits(dailyCharge, chargeDays)) {
+            return null;
+        }
+        return price(tool, checkoutEpochDay, rentalDays, chargeDays, discountPercent, dailyCharge.unscaledValue().longValue() * chargeDays);
+    }
+
+    /**
+     * Prices into the compact form from a pre-discount charge already summed in the minor units of the tool's daily
+     * charge, as for a tool with a rate schedule.
+     *
+     * @return null when the discount could overflow a long
+     */
+    public static CompactRentalAgreement price(Tool tool, int checkoutEpochDay, int rentalDays, int chargeDays, int discountPercent,
+                                               long preDiscountCharge) {
+        if (Math.abs(preDiscountCharge) > MAX_UNSCALED_DAILY_CHARGE) {
+            return null;
+        }
+        long discountAmount = divideHalfUp(preDiscountCharge * discountPercent, 100);
+        return new CompactRentalAgreement(tool, checkoutEpochDay, rentalDays, chargeDays, discountPercent, preDiscountCharge, discountAmount);
+    }
+
+    private static boolean fits(BigDecimal dailyCharge, int chargeDays) {
+        return dailyCharge.precision() <= 18
+                && Math.abs(dailyCharge.unscaledValue().longValue()) <= MAX_UNSCALED_DAILY_CHARGE / Math.max(chargeDays, 1);
+    }
+
+    /**
+     * {@code dividend / divisor} rounded half away from zero, matching {@link java.math.RoundingMode#HALF_UP}.
+     */
+    static long divideHalfUp(long dividend, long divisor) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(dividend);
+        }
+        return quotient;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.demo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal reader for the request bodies the checkout endpoint accepts: a single JSON object, or an array of
+ * objects, whose values are strings, numbers, booleans or null. Values are returned as their raw text (strings
+ * unescaped, null as {@code null}); nested objects and arrays are rejected.
+ */
+class FlatJsonParser {
+    private final String json;
+    private int position;
+
+    private FlatJsonParser(String json) {
+        this.json = json;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not an object or an array of flat objects
+     */
+    static List<Map<String, String>> parseObjects(String json) throws IllegalArgumentException {
+        FlatJsonParser parser = new FlatJsonParser(json);
+        List<Map<String, String>> objects = new ArrayList<>();
+
+        parser.skipWhitespace();
+        if (parser.peek() == '[') {
+            parser.position++;
+            parser.skipWhitespace();
+            if (parser.peek() == ']') {
+                parser.position++;
+            } else {
+                do {
+                    parser.skipWhitespace();
+                    objects.add(parser.readObject());
+                    parser.skipWhitespace();
+                } while (parser.consumeIf(','));
+                parser.expect(']');
+            }
+        } else {
+            objects.add(parser.readObject());
+        }
+
+        parser.skipWhitespace();
+        if (parser.position != json.length()) {
+            throw parser.error("unexpected trailing content");
+        }
+        return objects;
+    }
+
+    private Map<String, String> readObject() {
+        expect('{');
+        Map<String, String> object = new HashMap<>();
+        skipWhitespace();
+        if (consumeIf('}')) {
+            return object;
+        }
+        do {
+            skipWhitespace();
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            object.put(key, readValue());
+            skipWhitespace();
+        } while (consumeIf(','));
+        expect('}');
+        return object;
+    }
+
+    private String readValue() {
+        char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{' || c == '[') {
+            throw error("nested objects and arrays are not supported");
+        }
+        int start = position;
+        while (position < json.length() && ",}] \t\r\n".indexOf(json.charAt(position)) < 0) {
+            position++;
+        }
+        if (start == position) {
+            throw error("expected a value");
+        }
+        String literal = json.substring(start, position);
+        return "null".equals(literal) ? null : literal;
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            if (position >= json.length()) {
+                throw error("unterminated string");
+            }
+            char c = json.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (position >= json.length()) {
+                throw error("unterminated escape");
+            }
+            char escaped = json.charAt(position++);
+            switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (position + 4 > json.length()) {
+                        throw error("truncated unicode escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(json.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= json.length()) {
+            throw error("unexpected end of input");
+        }
+        return json.charAt(position);
+    }
+
+    private boolean consumeIf(char expected) {
+        if (position < json.length() && json.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char expected) {
+        if (!consumeIf(expected)) {
+            throw error("expected '" + expected + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String reason) {
+        return new IllegalArgumentException("Invalid JSON at position " + position + ": " + reason + ".");
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * Lazily built per-year index of holiday dates. Each year is kept as two 366-bit sets keyed by day of year, one
+ * for holidays falling on weekdays and one for holidays falling on weekends, so membership is a single bit test
+ * and counting the holidays in a range is a few popcounts per year.
+ * <p>
+ * Years live in a small direct-mapped table: a newly built year evicts whichever year occupied its slot. Entries
+ * are immutable and published through an {@link AtomicReferenceArray}, so readers never lock; two threads racing
+ * on the same missing year may both build it, which is harmless.
+ */
+public class HolidayCalendarIndex {
+    private static final int CACHE_SLOTS = 64;
+    private static final int WORDS_PER_YEAR = 6;
+
+    private final IntFunction<long[]> holidaysForYear;
+    private final AtomicReferenceArray<YearIndex> years = new AtomicReferenceArray<>(CACHE_SLOTS);
+
+    /**
+     * @param holidaysForYear supplies the epoch days of the holidays observed in a given year
+     */
+    public HolidayCalendarIndex(IntFunction<long[]> holidaysForYear) {
+        this.holidaysForYear = holidaysForYear;
+    }
+
+    /**
+     * Builds the given years up front so the first checkouts after startup do not pay for it.
+     */
+    public void warmUp(int firstYear, int lastYear) {
+        for (int year = firstYear; year <= lastYear; year++) {
+            yearIndex(year);
+        }
+    }
+
+    public boolean isHoliday(long epochDay) {
+        YearIndex yearIndex = yearIndex(yearOf(epochDay));
+        int dayOfYear = (int) (epochDay - yearIndex.firstDay);
+        return isSet(yearIndex.weekdayHolidays, dayOfYear) || isSet(yearIndex.weekendHolidays, dayOfYear);
+    }
+
+    /**
+     * Number of holidays in [fromEpochDay, toEpochDay).
+     */
+    public int countHolidays(long fromEpochDay, long toEpochDay) {
+        return countWeekdayHolidays(fromEpochDay, toEpochDay) + countWeekendHolidays(fromEpochDay, toEpochDay);
+    }
+
+    /**
+     * Number of holidays falling Monday through Friday in [fromEpochDay, toEpochDay).
+     */
+    public int countWeekdayHolidays(long fromEpochDay, long toEpochDay) {
+        return count(fromEpochDay, toEpochDay, true);
+    }
+
+    /**
+     * Number of holidays falling on a Saturday or Sunday in [fromEpochDay, toEpochDay).
+     */
+    public int countWeekendHolidays(long fromEpochDay, long toEpochDay) {
+        return count(fromEpochDay, toEpochDay, false);
+    }
+
+    private int count(long fromEpochDay, long toEpochDay, boolean weekdays) {
+        int holidays = 0;
+
+        long day = fromEpochDay;
+        while (day < toEpochDay) {
+            YearIndex yearIndex = yearIndex(yearOf(day));
+            long end = Math.min(toEpochDay, yearIndex.nextYearFirstDay);
+            long[] bits = weekdays ? yearIndex.weekdayHolidays : yearIndex.weekendHolidays;
+            holidays += countBits(bits, (int) (day - yearIndex.firstDay), (int) (end - yearIndex.firstDay));
+            day = end;
+        }
+
+        return holidays;
+    }
+
+    private YearIndex yearIndex(int year) {
+        int slot = Math.floorMod(year, CACHE_SLOTS);
+        YearIndex yearIndex = years.get(slot);
+        if (yearIndex == null || yearIndex.year != year) {
+            yearIndex = buildYear(year);
+            years.set(slot, yearIndex);
+        }
+        return yearIndex;
+    }
+
+    private YearIndex buildYear(int year) {
+        long firstDay = firstDayOfYear(year);
+        long nextYearFirstDay = firstDayOfYear(year + 1);
+        long[] weekdayHolidays = new long[WORDS_PER_YEAR];
+        long[] weekendHolidays = new long[WORDS_PER_YEAR];
+
+        for (long holiday : holidaysForYear.apply(year)) {
+            if (holiday < firstDay || holiday >= nextYearFirstDay) {
+                continue;
+            }
+            int dayOfYear = (int) (holiday - firstDay);
+            long[] bits = HolidayCheckerService.dayOfWeekIndex(holiday) >= 5 ? weekendHolidays : weekdayHolidays;
+            bits[dayOfYear >>> 6] |= 1L << dayOfYear;
+        }
+
+        return new YearIndex(year, firstDay, nextYearFirstDay, weekdayHolidays, weekendHolidays);
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Popcount of bits [from, to) of a bit set.
+     */
+    private static int countBits(long[] bits, int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+
+        if (firstWord == lastWord) {
+            return Long.bitCount(bits[firstWord] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(bits[firstWord] & firstMask);
+        for (int word = firstWord + 1; word < lastWord; word++) {
+            count += Long.bitCount(bits[word]);
+        }
+        return count + Long.bitCount(bits[lastWord] & lastMask);
+    }
+
+    /**
+     * Proleptic Gregorian year of an epoch day, computed without allocating a {@link java.time.LocalDate}.
+     */
+    static int yearOf(long epochDay) {
+        long days = epochDay + 719468;
+        long era = Math.floorDiv(days, 146097);
+        long dayOfEra = days - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long year = yearOfEra + era * 400;
+        return (int) (monthIndex >= 10 ? year + 1 : year);
+    }
+
+    /**
+     * Epoch day of January 1st of the given year.
+     */
+    static long firstDayOfYear(int year) {
+        long y = year - 1L;
+        return 365 * y + Math.floorDiv(y, 4) - Math.floorDiv(y, 100) + Math.floorDiv(y, 400) - 719162;
+    }
+
+    private static final class YearIndex {
+        private final int year;
+        private final long firstDay;
+        private final long nextYearFirstDay;
+        private final long[] weekdayHolidays;
+        private final long[] weekendHolidays;
+
+        private YearIndex(int year, long firstDay, long nextYearFirstDay, long[] weekdayHolidays, long[] weekendHolidays) {
+            this.year = year;
+            this.firstDay = firstDay;
+            this.nextYearFirstDay = nextYearFirstDay;
+            this.weekdayHolidays = weekdayHolidays;
+            this.weekendHolidays = weekendHolidays;
+        }
+    }
+}
@@ -1,13 +1,107 @@
 package com.example.demo;
 
+import com.example.demo.model.HolidayRule;
+import com.example.demo.model.HolidayRuleType;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Answers holiday questions from compiled {@link HolidayCalendarIndex} calendars: a default calendar, and one per
+ * store for stores in regions with holidays of their own. The calendars are immutable and replaced wholesale by
+ * {@link #useHolidayRules} and {@link #useHolidayCalendars}, so one instance can be shared by every checkout thread.
+ * The holiday methods below answer for the default calendar.
+ */
 @Service
 public class HolidayCheckerService {
-    public static boolean isIndependenceDay(LocalDate date) {
+    public static final List<HolidayRule> DEFAULT_HOLIDAY_RULES = List.of(
+            new HolidayRule("Independence Day", HolidayRuleType.FIXED_DATE, 7, 4, null, 0, true),
+            new HolidayRule("Labor Day", HolidayRuleType.NTH_WEEKDAY, 9, 0, DayOfWeek.MONDAY, 1, false));
+
+    private static final int WARM_UP_YEARS = 5;
+
+    private volatile StoreHolidayCalendars storeCalendars;
+    private volatile HolidayCalendarIndex holidayIndex;
+    private volatile long holidayRulesVersion;
+    private Map<String, List<HolidayRule>> regionalHolidayRules = Map.of();
+    private Map<String, String> storeRegions = Map.of();
+
+    /**
+     * Uses the configured holiday rules, or {@link #DEFAULT_HOLIDAY_RULES} when none are configured, and the
+     * configured regional rules and store regions.
+     */
+    @Autowired
+    public HolidayCheckerService(HolidayRuleProperties holidayRuleProperties) {
+        useHolidayCalendars(holidayRuleProperties.getHolidays().isEmpty() ? DEFAULT_HOLIDAY_RULES : holidayRuleProperties.getHolidays(),
+                holidayRuleProperties.getRegionalHolidays(), holidayRuleProperties.getStoreRegions());
+    }
+
+    public HolidayCheckerService() {
+        this(DEFAULT_HOLIDAY_RULES);
+    }
+
+    public HolidayCheckerService(List<HolidayRule> holidayRules) throws IllegalArgumentException {
+        useHolidayRules(holidayRules);
+    }
+
+    /**
+     * Compiles the given rules and atomically replaces the default holiday rules used by all checkouts. Regional
+     * calendars are rebuilt on top of the new rules.
+     */
+    public synchronized void useHolidayRules(List<HolidayRule> holidayRules) throws IllegalArgumentException {
+        useHolidayCalendars(holidayRules, regionalHolidayRules, storeRegions);
+    }
+
+    /**
+     * Compiles the default calendar and every store's calendar and atomically replaces the ones used by all
+     * checkouts.
+     *
+     * @param regionalHolidayRules the holidays each region observes on top of {@code holidayRules}
+     * @param storeRegions the region of each store with a regional calendar
+     */
+    public synchronized void useHolidayCalendars(List<HolidayRule> holidayRules, Map<String, List<HolidayRule>> regionalHolidayRules,
+                                                 Map<String, String> storeRegions) throws IllegalArgumentException {
+        StoreHolidayCalendars compiledCalendars = HolidayRuleCompiler.compileStoreCalendars(holidayRules, regionalHolidayRules, storeRegions);
+        // the UTC clock avoids loading the time zone database just to find the current year
+        int currentYear = LocalDate.now(ZoneOffset.UTC).getYear();
+        for (HolidayCalendarIndex calendar : compiledCalendars.getDistinctCalendars()) {
+            calendar.warmUp(currentYear - WARM_UP_YEARS, currentYear + WARM_UP_YEARS);
+        }
+        this.regionalHolidayRules = Map.copyOf(regionalHolidayRules);
+        this.storeRegions = Map.copyOf(storeRegions);
+        storeCalendars = compiledCalendars;
+        holidayIndex = compiledCalendars.getDefaultCalendar();
+        holidayRulesVersion++;
+    }
+
+    /**
+     * @param storeId the store, or null for the default calendar
+     * @return the store's holiday calendar, or null if the store is unknown
+     */
+    public HolidayCalendarIndex findHolidayCalendar(String storeId) {
+        return storeCalendars.findCalendar(storeId);
+    }
+
+    /**
+     * @return the number of distinct calendars in memory, the default calendar included
+     */
+    public int countDistinctCalendars() {
+        return storeCalendars.getDistinctCalendars().size();
+    }
+
+    /**
+     * Incremented every time the holiday rules are replaced, so caches derived from them can tell when they are stale.
+     */
+    public long getHolidayRulesVersion() {
+        return holidayRulesVersion;
+    }
+
+    public boolean isIndependenceDay(LocalDate date) {
         boolean isJuly = date.getMonthValue() == 7;
         boolean is3rd = date.getDayOfMonth() == 3;
         boolean is4th = date.getDayOfMonth() == 4;
@@ -20,12 +114,42 @@ public class HolidayCheckerService {
         return isJuly && ((is3rd && isFriday) || (is4th && isNotWeekend) || (is5th && isMonday));
     }
 
-    public static boolean isLaborDay(LocalDate date) {
+    public boolean isLaborDay(LocalDate date) {
         boolean isSeptember = date.getMonthValue() == 9;
-        const isMonday = date.getDayOfWeek() == DayOfWeek.MONDAY;
-        const isFirstMonday = isMonday && date.getDayOfMonth() <= 7;
+        boolean isMonday = date.getDayOfWeek() == DayOfWeek.MONDAY;
+        boolean isFirstMonday = isMonday && date.getDayOfMonth() <= 7;
 
         return isSeptember && isFirstMonday;
     }
 
+    public boolean isHoliday(LocalDate date) {
+        return holidayIndex.isHoliday(date.toEpochDay());
+    }
+
+    public boolean isHoliday(long epochDay) {
+        return holidayIndex.isHoliday(epochDay);
+    }
+
+    /**
+     * Number of observed holidays in [from, to).
+     */
+    public int countHolidays(LocalDate from, LocalDate to) {
+        return holidayIndex.countHolidays(from.toEpochDay(), to.toEpochDay());
+    }
+
+    public int countWeekdayHolidays(long fromEpochDay, long toEpochDay) {
+        return holidayIndex.countWeekdayHolidays(fromEpochDay, toEpochDay);
+    }
+
+    public int countWeekendHolidays(long fromEpochDay, long toEpochDay) {
+        return holidayIndex.countWeekendHolidays(fromEpochDay, toEpochDay);
+    }
+
+    /**
+     * Day of week for an epoch day as 0 (Monday) through 6 (Sunday). 1970-01-01 was a Thursday.
+     */
+    public static int dayOfWeekIndex(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
 }
@@ -0,0 +1,169 @@
+package com.example.demo;
+
+import com.example.demo.model.HolidayRule;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntToLongFunction;
+
+import static com.example.demo.HolidayCheckerService.dayOfWeekIndex;
+
+/**
+ * Turns {@link HolidayRule} definitions into a {@link HolidayCalendarIndex}. Rules are validated and reduced to
+ * year-to-epoch-day functions once; the index then evaluates them only when it builds a year, so the number of
+ * rules has no effect on the cost of a holiday lookup.
+ */
+public class HolidayRuleCompiler {
+    private static final long NO_HOLIDAY = Long.MIN_VALUE;
+
+    public static HolidayCalendarIndex compile(List<HolidayRule> rules) {
+        IntToLongFunction[] compiledRules = new IntToLongFunction[rules.size()];
+        for (int i = 0; i < compiledRules.length; i++) {
+            compiledRules[i] = compileRule(rules.get(i));
+        }
+
+        // Observance can move a holiday into the neighbouring year (a Saturday January 1st is observed on
+        // December 31st), so each year also looks at the rules of the years either side of it.
+        return new HolidayCalendarIndex(year -> {
+            long[] holidays = new long[compiledRules.length * 3];
+            int i = 0;
+            for (int ruleYear = year - 1; ruleYear <= year + 1; ruleYear++) {
+                for (IntToLongFunction compiledRule : compiledRules) {
+                    holidays[i++] = compiledRule.applyAsLong(ruleYear);
+                }
+            }
+            return holidays;
+        });
+    }
+
+    /**
+     * Compiles the default calendar and one calendar per store. A store's calendar observes the default rules plus
+     * the rules of its region. Calendars are keyed by the holidays they observe, ignoring rule names, so regions
+     * with the same holidays compile to one shared instance. A region listed with no rules uses the default calendar;
+     * a store whose region is not listed at all is rejected, so a misspelt region cannot silently drop its holidays.
+     *
+     * @param regionalRules the extra rules of each region
+     * @param storeRegions the region of each store
+     * @throws IllegalArgumentException if a rule is invalid or a store's region is not in {@code regionalRules}
+     */
+    public static StoreHolidayCalendars compileStoreCalendars(List<HolidayRule> defaultRules, Map<String, List<HolidayRule>> regionalRules,
+                                                              Map<String, String> storeRegions) throws IllegalArgumentException {
+        Map<Set<HolidayRule>, HolidayCalendarIndex> calendarByHolidays = new LinkedHashMap<>();
+        HolidayCalendarIndex defaultCalendar = calendarByHolidays.computeIfAbsent(holidaysOf(defaultRules, List.of()),
+                holidays -> compile(defaultRules));
+
+        Map<String, HolidayCalendarIndex> calendarByRegion = new HashMap<>();
+        for (Map.Entry<String, List<HolidayRule>> region : regionalRules.entrySet()) {
+            List<HolidayRule> rules = new ArrayList<>(defaultRules);
+            rules.addAll(region.getValue());
+            calendarByRegion.put(region.getKey(), calendarByHolidays.computeIfAbsent(holidaysOf(defaultRules, region.getValue()),
+                    holidays -> compile(rules)));
+        }
+
+        Map<String, HolidayCalendarIndex> calendarByStore = new HashMap<>();
+        for (Map.Entry<String, String> storeRegion : storeRegions.entrySet()) {
+            HolidayCalendarIndex calendar = calendarByRegion.get(storeRegion.getValue());
+            if (calendar == null) {
+                throw new IllegalArgumentException("Invalid store '" + storeRegion.getKey() + "': region '" + storeRegion.getValue()
+                        + "' is not configured.");
+            }
+            calendarByStore.put(storeRegion.getKey(), calendar);
+        }
+        return new StoreHolidayCalendars(defaultCalendar, calendarByStore, List.copyOf(calendarByHolidays.values()));
+    }
+
+    /**
+     * Validates the rules and returns them without their names, which do not change which days are holidays.
+     */
+    private static Set<HolidayRule> holidaysOf(List<HolidayRule> defaultRules, List<HolidayRule> regionalRules) {
+        Set<HolidayRule> holidays = new HashSet<>();
+        for (List<HolidayRule> rules : List.of(defaultRules, regionalRules)) {
+            for (HolidayRule rule : rules) {
+                compileRule(rule);
+                holidays.add(new HolidayRule(null, rule.getType(), rule.getMonth(), rule.getDayOfMonth(), rule.getDayOfWeek(),
+                        rule.getOrdinal(), rule.isObservedOnNearestWeekday()));
+            }
+        }
+        return holidays;
+    }
+
+    static IntToLongFunction compileRule(HolidayRule rule) throws IllegalArgumentException {
+        if (rule.getType() == null) {
+            throw invalidRule(rule, "a rule type is required");
+        }
+        if (rule.getMonth() < 1 || rule.getMonth() > 12) {
+            throw invalidRule(rule, "the month must be between 1 and 12");
+        }
+        Month month = Month.of(rule.getMonth());
+
+        switch (rule.getType()) {
+            case FIXED_DATE:
+                if (rule.getDayOfMonth() < 1 || rule.getDayOfMonth() > month.maxLength()) {
+                    throw invalidRule(rule, "the day of month must be between 1 and " + month.maxLength());
+                }
+                return fixedDate(month, rule.getDayOfMonth(), rule.isObservedOnNearestWeekday());
+            case NTH_WEEKDAY:
+                if (rule.getDayOfWeek() == null || rule.getOrdinal() < 1 || rule.getOrdinal() > 5) {
+                    throw invalidRule(rule, "a day of week and an ordinal between 1 and 5 are required");
+                }
+                return nthWeekday(month, dayOfWeekIndexOf(rule), rule.getOrdinal());
+            case LAST_WEEKDAY:
+                if (rule.getDayOfWeek() == null) {
+                    throw invalidRule(rule, "a day of week is required");
+                }
+                return lastWeekday(month, dayOfWeekIndexOf(rule));
+            default:
+                throw invalidRule(rule, "unsupported rule type " + rule.getType());
+        }
+    }
+
+    private static IntToLongFunction fixedDate(Month month, int dayOfMonth, boolean observedOnNearestWeekday) {
+        return year -> {
+            if (dayOfMonth > month.length(Year.isLeap(year))) {
+                return NO_HOLIDAY;
+            }
+            long date = LocalDate.of(year, month, dayOfMonth).toEpochDay();
+            if (observedOnNearestWeekday) {
+                int dayOfWeek = dayOfWeekIndex(date);
+                if (dayOfWeek == 5) {
+                    return date - 1;
+                }
+                if (dayOfWeek == 6) {
+                    return date + 1;
+                }
+            }
+            return date;
+        };
+    }
+
+    private static IntToLongFunction nthWeekday(Month month, int dayOfWeek, int ordinal) {
+        return year -> {
+            long firstOfMonth = LocalDate.of(year, month, 1).toEpochDay();
+            long date = firstOfMonth + Math.floorMod(dayOfWeek - dayOfWeekIndex(firstOfMonth), 7) + 7L * (ordinal - 1);
+            return date - firstOfMonth < month.length(Year.isLeap(year)) ? date : NO_HOLIDAY;
+        };
+    }
+
+    private static IntToLongFunction lastWeekday(Month month, int dayOfWeek) {
+        return year -> {
+            long lastOfMonth = LocalDate.of(year, month, month.length(Year.isLeap(year))).toEpochDay();
+            return lastOfMonth - Math.floorMod(dayOfWeekIndex(lastOfMonth) - dayOfWeek, 7);
+        };
+    }
+
+    private static int dayOfWeekIndexOf(HolidayRule rule) {
+        return rule.getDayOfWeek().getValue() - 1;
+    }
+
+    private static IllegalArgumentException invalidRule(HolidayRule rule, String reason) {
+        return new IllegalArgumentException("Invalid holiday rule '" + rule.getName() + "': " + reason + ".");
+    }
+}
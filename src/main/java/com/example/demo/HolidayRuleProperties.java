@@ -0,0 +1,27 @@
+package com.example.demo;
+
+import com.example.demo.model.HolidayRule;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holiday rules bound from {@code rental.holidays[n].*}. When none are configured the built-in rules in
+ * {@link HolidayCheckerService} stay in effect. Regions add their own holidays under
+ * {@code rental.regional-holidays.<region>[n].*}, and {@code rental.store-regions.<store>=<region>} assigns a store
+ * to a region. Every region a store names must be listed; a region with no holidays of its own is listed with an
+ * empty list and uses the default calendar.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rental")
+public class HolidayRuleProperties {
+    private List<HolidayRule> holidays = new ArrayList<>();
+    private Map<String, List<HolidayRule>> regionalHolidays = new LinkedHashMap<>();
+    private Map<String, String> storeRegions = new LinkedHashMap<>();
+}
@@ -0,0 +1,21 @@
+package com.example.demo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Provides an in-process {@link SimpleMeterRegistry} for {@link CheckoutMetrics} unless another registry is
+ * configured, e.g. by Actuator with a monitoring backend on the classpath.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo;
+
+public enum PricingMode {
+    /**
+     * Charges are computed with {@link java.math.BigDecimal} arithmetic.
+     */
+    BIG_DECIMAL,
+    /**
+     * Charges are computed on unscaled longs by {@link FixedPointPricing}, falling back to {@link #BIG_DECIMAL}
+     * for amounts that do not fit in a long.
+     */
+    FIXED_POINT
+}
@@ -0,0 +1,136 @@
+package com.example.demo;
+
+import com.example.demo.model.Promotion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Turns {@link Promotion} definitions into a {@link PromotionIndex}. Promotions are validated, grouped by the tool
+ * type and loyalty code they apply to and summed into grids once, so the number of active promotions has no effect
+ * on the cost of pricing a checkout.
+ */
+public class PromotionCompiler {
+
+    public static PromotionIndex compile(List<Promotion> promotions) throws IllegalArgumentException {
+        Set<String> toolTypes = new LinkedHashSet<>();
+        Set<String> loyaltyCodes = new LinkedHashSet<>();
+        for (Promotion promotion : promotions) {
+            validate(promotion);
+            if (promotion.getToolType() != null) {
+                toolTypes.add(promotion.getToolType());
+            }
+            if (promotion.getLoyaltyCode() != null) {
+                loyaltyCodes.add(promotion.getLoyaltyCode());
+            }
+        }
+        if (promotions.isEmpty()) {
+            return PromotionIndex.EMPTY;
+        }
+
+        Map<String, PromotionIndex.ToolTypePromotions> byToolType = new HashMap<>();
+        for (String toolType : toolTypes) {
+            byToolType.put(toolType, compileToolType(promotions, toolType, loyaltyCodes));
+        }
+        return new PromotionIndex(byToolType, compileToolType(promotions, null, loyaltyCodes));
+    }
+
+    /**
+     * @param toolType the tool type, or null for tool types that no promotion names
+     */
+    private static PromotionIndex.ToolTypePromotions compileToolType(List<Promotion> promotions, String toolType, Set<String> loyaltyCodes) {
+        PromotionIndex.Grid withoutLoyaltyCode = compileGrid(select(promotions, toolType, null));
+        Map<String, PromotionIndex.Grid> byLoyaltyCode = new HashMap<>();
+        for (String loyaltyCode : loyaltyCodes) {
+            List<Promotion> selected = select(promotions, toolType, loyaltyCode);
+            if (selected.stream().anyMatch(promotion -> promotion.getLoyaltyCode() != null)) {
+                byLoyaltyCode.put(loyaltyCode, compileGrid(selected));
+            }
+        }
+        return new PromotionIndex.ToolTypePromotions(withoutLoyaltyCode, byLoyaltyCode);
+    }
+
+    private static List<Promotion> select(List<Promotion> promotions, String toolType, String loyaltyCode) {
+        List<Promotion> selected = new ArrayList<>();
+        for (Promotion promotion : promotions) {
+            boolean toolTypeMatches = promotion.getToolType() == null || promotion.getToolType().equals(toolType);
+            boolean loyaltyCodeMatches = promotion.getLoyaltyCode() == null || promotion.getLoyaltyCode().equals(loyaltyCode);
+            if (toolTypeMatches && loyaltyCodeMatches) {
+                selected.add(promotion);
+            }
+        }
+        return selected;
+    }
+
+    private static PromotionIndex.Grid compileGrid(List<Promotion> promotions) {
+        TreeSet<Long> dayBoundSet = new TreeSet<>();
+        TreeSet<Integer> rentalDayBoundSet = new TreeSet<>();
+        for (Promotion promotion : promotions) {
+            if (promotion.getStartDate() != null) {
+                dayBoundSet.add(promotion.getStartDate().toEpochDay());
+            }
+            if (promotion.getEndDate() != null) {
+                dayBoundSet.add(promotion.getEndDate().toEpochDay() + 1);
+            }
+            if (promotion.getMinRentalDays() > 0) {
+                rentalDayBoundSet.add(promotion.getMinRentalDays());
+            }
+            if (promotion.getMaxRentalDays() > 0) {
+                rentalDayBoundSet.add(promotion.getMaxRentalDays() + 1);
+            }
+        }
+        long[] dayBounds = dayBoundSet.stream().mapToLong(Long::longValue).toArray();
+        int[] rentalDayBounds = rentalDayBoundSet.stream().mapToInt(Integer::intValue).toArray();
+
+        int columns = rentalDayBounds.length + 1;
+        int[] sums = new int[(dayBounds.length + 1) * columns];
+        for (Promotion promotion : promotions) {
+            int firstRow = promotion.getStartDate() == null ? 0 : PromotionIndex.Grid.interval(dayBounds, promotion.getStartDate().toEpochDay());
+            int endRow = promotion.getEndDate() == null ? dayBounds.length + 1
+                    : PromotionIndex.Grid.interval(dayBounds, promotion.getEndDate().toEpochDay() + 1);
+            int firstColumn = promotion.getMinRentalDays() > 0 ? PromotionIndex.Grid.interval(rentalDayBounds, promotion.getMinRentalDays()) : 0;
+            int endColumn = promotion.getMaxRentalDays() > 0 ? PromotionIndex.Grid.interval(rentalDayBounds, promotion.getMaxRentalDays() + 1) : columns;
+            for (int row = firstRow; row < endRow; row++) {
+                for (int column = firstColumn; column < endColumn; column++) {
+                    sums[row * columns + column] += promotion.getPercent();
+                }
+            }
+        }
+
+        byte[] percents = new byte[sums.length];
+        for (int i = 0; i < sums.length; i++) {
+            percents[i] = (byte) Math.min(sums[i], 100);
+        }
+        return new PromotionIndex.Grid(dayBounds, rentalDayBounds, percents);
+    }
+
+    private static void validate(Promotion promotion) throws IllegalArgumentException {
+        if (promotion.getPercent() < 1 || promotion.getPercent() > 100) {
+            throw invalidPromotion(promotion, "the percent must be between 1 and 100");
+        }
+        if (isBlank(promotion.getToolType()) || isBlank(promotion.getLoyaltyCode())) {
+            throw invalidPromotion(promotion, "the tool type and loyalty code must be left out rather than blank");
+        }
+        if (promotion.getMinRentalDays() < 0 || promotion.getMaxRentalDays() < 0
+                || (promotion.getMaxRentalDays() > 0 && promotion.getMaxRentalDays() < promotion.getMinRentalDays())) {
+            throw invalidPromotion(promotion, "the rental days must be 0 (open) or a range with the minimum at or below the maximum");
+        }
+        if (promotion.getStartDate() != null && promotion.getEndDate() != null && promotion.getEndDate().isBefore(promotion.getStartDate())) {
+            throw invalidPromotion(promotion, "the end date must be on or after the start date");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value != null && value.isBlank();
+    }
+
+    private static IllegalArgumentException invalidPromotion(Promotion promotion, String reason) {
+        return new IllegalArgumentException("Invalid promotion '" + Objects.toString(promotion.getName(), "") + "': " + reason + ".");
+    }
+}
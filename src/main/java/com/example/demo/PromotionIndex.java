@@ -0,0 +1,70 @@
+package com.example.demo;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Compiled promotions, built by {@link PromotionCompiler}. Every (tool type, loyalty code) combination that has
+ * promotions of its own gets a {@link Grid} of the summed percentages; looking up a checkout's discount is one hash
+ * lookup on the tool type, one on the loyalty code and two binary searches over a handful of boundaries.
+ */
+public class PromotionIndex {
+    static final PromotionIndex EMPTY = new PromotionIndex(Map.of(), new ToolTypePromotions(Grid.EMPTY, Map.of()));
+
+    private final Map<String, ToolTypePromotions> byToolType;
+    private final ToolTypePromotions otherToolTypes;
+
+    PromotionIndex(Map<String, ToolTypePromotions> byToolType, ToolTypePromotions otherToolTypes) {
+        this.byToolType = byToolType;
+        this.otherToolTypes = otherToolTypes;
+    }
+
+    /**
+     * @return the summed percentage of every promotion the checkout qualifies for, at most 100
+     */
+    public int discountPercent(String toolType, String loyaltyCode, long checkoutEpochDay, int rentalDays) {
+        ToolTypePromotions toolTypePromotions = toolType == null ? otherToolTypes : byToolType.getOrDefault(toolType, otherToolTypes);
+        Grid grid = loyaltyCode == null ? toolTypePromotions.withoutLoyaltyCode
+                : toolTypePromotions.byLoyaltyCode.getOrDefault(loyaltyCode, toolTypePromotions.withoutLoyaltyCode);
+        return grid.percent(checkoutEpochDay, rentalDays);
+    }
+
+    record ToolTypePromotions(Grid withoutLoyaltyCode, Map<String, Grid> byLoyaltyCode) {
+    }
+
+    /**
+     * The checkout days and rental lengths at which some promotion starts or stops split the plane into cells;
+     * {@code percents} holds the capped sum for each cell, row-major by checkout day interval. Interval i of a
+     * bounds array is [bounds[i - 1], bounds[i]), with the first and last intervals open-ended.
+     */
+    static final class Grid {
+        static final Grid EMPTY = new Grid(new long[0], new int[0], new byte[1]);
+
+        private final long[] dayBounds;
+        private final int[] rentalDayBounds;
+        private final byte[] percents;
+
+        Grid(long[] dayBounds, int[] rentalDayBounds, byte[] percents) {
+            this.dayBounds = dayBounds;
+            this.rentalDayBounds = rentalDayBounds;
+            this.percents = percents;
+        }
+
+        int percent(long checkoutEpochDay, int rentalDays) {
+            return percents[interval(dayBounds, checkoutEpochDay) * (rentalDayBounds.length + 1) + interval(rentalDayBounds, rentalDays)];
+        }
+
+        /**
+         * @return the number of bounds at or below {@code value}
+         */
+        static int interval(long[] bounds, long value) {
+            int index = Arrays.binarySearch(bounds, value);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+
+        static int interval(int[] bounds, int value) {
+            int index = Arrays.binarySearch(bounds, value);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+}
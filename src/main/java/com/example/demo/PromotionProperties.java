@@ -0,0 +1,19 @@
+package com.example.demo;
+
+import com.example.demo.model.Promotion;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Promotions bound from {@code rental.promotions[n].*}. None are configured by default.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rental")
+public class PromotionProperties {
+    private List<Promotion> promotions = new ArrayList<>();
+}
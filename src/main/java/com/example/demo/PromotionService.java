@@ -0,0 +1,55 @@
+package com.example.demo;
+
+import com.example.demo.model.Promotion;
+import com.example.demo.model.Tool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Answers how much promotions take off a checkout from a compiled {@link PromotionIndex}. As with the holiday
+ * calendar, the index is immutable and replaced wholesale by {@link #usePromotions}, so one instance can be shared
+ * by every checkout thread.
+ */
+@Service
+public class PromotionService {
+
+    private volatile PromotionIndex promotionIndex;
+
+    @Autowired
+    public PromotionService(PromotionProperties promotionProperties) {
+        this(promotionProperties.getPromotions());
+    }
+
+    /**
+     * A service without promotions.
+     */
+    public PromotionService() {
+        this(List.of());
+    }
+
+    public PromotionService(List<Promotion> promotions) throws IllegalArgumentException {
+        usePromotions(promotions);
+    }
+
+    /**
+     * Compiles the given promotions and atomically replaces the ones used by all checkouts.
+     */
+    public synchronized void usePromotions(List<Promotion> promotions) throws IllegalArgumentException {
+        promotionIndex = PromotionCompiler.compile(promotions);
+    }
+
+    /**
+     * @param loyaltyCode the customer's loyalty code, or null
+     * @return the summed percentage of every promotion the checkout qualifies for, at most 100
+     */
+    public int discountPercent(Tool tool, int rentalDays, LocalDate checkoutDate, String loyaltyCode) {
+        return promotionIndex.discountPercent(tool.getToolType(), loyaltyCode, checkoutDate.toEpochDay(), rentalDays);
+    }
+
+    public int discountPercent(Tool tool, int rentalDays, long checkoutEpochDay, String loyaltyCode) {
+        return promotionIndex.discountPercent(tool.getToolType(), loyaltyCode, checkoutEpochDay, rentalDays);
+    }
+}
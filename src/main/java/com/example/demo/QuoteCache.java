@@ -0,0 +1,197 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded memo of priced agreements keyed by (tool code, checkout date, rental days, discount, holiday calendar).
+ * Pricing is deterministic, so a hit skips the charge-day and charge computation entirely and only copies the cached
+ * agreement.
+ * <p>
+ * The cache is split into segments, each an access-ordered {@link LinkedHashMap} evicting its least recently used
+ * entry, so threads only contend when they hit the same segment. Every entry belongs to a generation derived from
+ * the tool catalog, holiday rule and rate schedule versions; when any of them changes the whole cache is dropped on
+ * the next access. Each entry records the generation read before it was priced, and only entries of the current
+ * generation count as hits, so a quote priced while a reload was in progress is never served afterwards.
+ * A capacity of 0 ({@code rental.quote-cache.capacity}) disables caching.
+ */
+@Service
+public class QuoteCache {
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final LongSupplier generationSupplier;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private volatile long generation;
+
+    @Autowired
+    public QuoteCache(@Value("${rental.quote-cache.capacity:10000}") int capacity, ToolCatalog toolCatalog,
+                      HolidayCheckerService holidayCheckerService, RateScheduleService rateScheduleService) {
+        this(capacity, () -> toolCatalog.getVersion() + holidayCheckerService.getHolidayRulesVersion() + rateScheduleService.getVersion());
+    }
+
+    public QuoteCache(int capacity, ToolCatalog toolCatalog, HolidayCheckerService holidayCheckerService) {
+        this(capacity, () -> toolCatalog.getVersion() + holidayCheckerService.getHolidayRulesVersion());
+    }
+
+    /**
+     * @param generationSupplier a value that increases whenever cached quotes may have become stale
+     */
+    public QuoteCache(int capacity, LongSupplier generationSupplier) {
+        this.generationSupplier = generationSupplier;
+        this.generation = generationSupplier.getAsLong();
+        if (capacity <= 0) {
+            this.segments = null;
+            return;
+        }
+        this.segments = new Segment[SEGMENTS];
+        int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Caches under the default holiday calendar.
+     */
+    public RentalAgreement getOrPrice(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate, Pricer pricer) {
+        return getOrPrice(tool, rentalDays, discountPercent, checkoutDate, null, pricer);
+    }
+
+    /**
+     * @param holidayCalendar the calendar {@code pricer} counts holidays with, compared by identity; null for the
+     * default calendar
+     */
+    public RentalAgreement getOrPrice(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate,
+                                      HolidayCalendarIndex holidayCalendar, Pricer pricer) {
+        if (segments == null) {
+            return pricer.price(tool, rentalDays, discountPercent, checkoutDate);
+        }
+        long currentGeneration = invalidateIfStale();
+
+        QuoteKey key = new QuoteKey(tool.getToolCode(), checkoutDate.toEpochDay(), rentalDays, discountPercent, holidayCalendar);
+        Segment segment = segments[(key.hashCode() & 0x7fffffff) % SEGMENTS];
+
+        CachedQuote cachedQuote;
+        synchronized (segment) {
+            cachedQuote = segment.get(key);
+        }
+        if (cachedQuote != null && cachedQuote.generation == currentGeneration && cachedQuote.tool.equals(tool)) {
+            hits.increment();
+            return copyOf(cachedQuote.rentalAgreement);
+        }
+
+        misses.increment();
+        RentalAgreement rentalAgreement = pricer.price(tool, rentalDays, discountPercent, checkoutDate);
+        if (generationSupplier.getAsLong() == currentGeneration) {
+            synchronized (segment) {
+                segment.put(key, new CachedQuote(tool, copyOf(rentalAgreement), currentGeneration));
+            }
+        }
+        return rentalAgreement;
+    }
+
+    public void invalidateAll() {
+        if (segments == null) {
+            return;
+        }
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        if (segments == null) {
+            return 0;
+        }
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the generation the caller should tag and accept entries with
+     */
+    private long invalidateIfStale() {
+        long currentGeneration = generationSupplier.getAsLong();
+        if (currentGeneration != generation) {
+            synchronized (this) {
+                if (currentGeneration != generation) {
+                    invalidateAll();
+                    generation = currentGeneration;
+                }
+            }
+        }
+        return currentGeneration;
+    }
+
+    /**
+     * Agreements are mutable beans, so callers always receive their own copy.
+     */
+    private static RentalAgreement copyOf(RentalAgreement rentalAgreement) {
+        return new RentalAgreement(rentalAgreement.getToolCode(), rentalAgreement.getToolType(), rentalAgreement.getToolBrand(),
+                rentalAgreement.getRentalDays(), rentalAgreement.getCheckoutDate(), rentalAgreement.getDueDate(),
+                rentalAgreement.getDailyRentalCharge(), rentalAgreement.getChargeDays(), rentalAgreement.getPreDiscountCharge(),
+                rentalAgreement.getDiscountPercent(), rentalAgreement.getDiscountAmount(), rentalAgreement.getFinalCharge(),
+                rentalAgreement.getStoreId());
+    }
+
+    @FunctionalInterface
+    public interface Pricer {
+        RentalAgreement price(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate);
+    }
+
+    private record QuoteKey(String toolCode, long checkoutEpochDay, int rentalDays, int discountPercent,
+                            HolidayCalendarIndex holidayCalendar) {
+    }
+
+    private record CachedQuote(Tool tool, RentalAgreement rentalAgreement, long generation) {
+    }
+
+    private final class Segment extends LinkedHashMap<QuoteKey, CachedQuote> {
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(capacity * 2, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<QuoteKey, CachedQuote> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutError;
+import com.example.demo.model.CompactRentalAgreement;
+import com.example.demo.model.QuoteFileSummary;
+import com.example.demo.model.Tool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prices quote files of any size with flat memory use. Each input row is
+ * <pre>
+ *   toolCode,checkoutDate,rentalDays,discountPercent      e.g. LADW,2020-07-02,3,10
+ * </pre>
+ * with dates in ISO-8601; blank lines, {@code #} comments and a {@code toolCode,} header are skipped. Every other
+ * row produces one output row in {@link RentalAgreementRenderer#CSV_HEADER} columns plus an {@code error} column:
+ * the priced agreement with an empty error, or for a rejected row its tool code, rental days, checkout date and
+ * discount as given and the {@link CheckoutError} name.
+ * <p>
+ * A reader thread cuts the input into chunks of about {@code chunkRows} rows, copied into one {@code char[]} per
+ * chunk without making a String per line, and hands each to a pool of {@code parallelism} workers. Workers parse
+ * fields straight from the chunk's characters and price through
+ * {@link RentalAgreementService#priceCompact(Tool, int, int, LocalDate)}, so nothing is reserved or sent to the
+ * agreement sink. The calling thread writes chunks out in input order. At most {@code 2 * parallelism} chunks are
+ * queued between reading and writing; once that many are waiting, the reader blocks until the writer catches up.
+ */
+@Component
+public class QuoteFilePipeline {
+    public static final String OUTPUT_HEADER = RentalAgreementRenderer.CSV_HEADER + ",error";
+
+    private static final int MIN_FREE_CHARS = 4096;
+    private static final int AVERAGE_ROW_CHARS = 32;
+
+    private final RentalAgreementService rentalAgreementService;
+    private final int chunkRows;
+    private final int parallelism;
+
+    /**
+     * @param parallelism the number of pricing threads; 0 uses one per available processor
+     */
+    @Autowired
+    public QuoteFilePipeline(RentalAgreementService rentalAgreementService,
+                             @Value("${rental.quote-file.chunk-rows:4096}") int chunkRows,
+                             @Value("${rental.quote-file.parallelism:0}") int parallelism) {
+        if (chunkRows < 1) {
+            throw new IllegalArgumentException("Please choose a quote file chunk size of at least one row.");
+        }
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Please choose a quote file parallelism of 0 (one thread per processor) or greater.");
+        }
+        this.rentalAgreementService = rentalAgreementService;
+        this.chunkRows = chunkRows;
+        this.parallelism = parallelism == 0 ? Runtime.getRuntime().availableProcessors() : parallelism;
+    }
+
+    public QuoteFileSummary run(Path input, Path output) throws IOException {
+        try (Reader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            return run(reader, writer);
+        }
+    }
+
+    /**
+     * Prices every row from {@code reader} into {@code writer}. Neither is closed.
+     *
+     * @throws IOException if reading or writing fails, or a row does not fit in a chunk
+     */
+    public QuoteFileSummary run(Reader reader, Writer writer) throws IOException {
+        ToolCodeTable toolCodeTable = new ToolCodeTable(rentalAgreementService.getToolCatalog().getTools());
+        BlockingQueue<Future<PricedChunk>> pending = new ArrayBlockingQueue<>(parallelism * 2);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, daemonThreads("quote-file-pricer-"));
+        Thread readerThread = daemonThreads("quote-file-reader-").newThread(() -> readChunks(reader, toolCodeTable, workers, pending));
+        readerThread.start();
+
+        long rows = 0;
+        long rejectedRows = 0;
+        try {
+            writer.write(OUTPUT_HEADER);
+            writer.write('\n');
+            while (true) {
+                PricedChunk pricedChunk = pending.take().get();
+                if (pricedChunk == PricedChunk.END) {
+                    break;
+                }
+                writer.append(pricedChunk.output);
+                rows += pricedChunk.rows;
+                rejectedRows += pricedChunk.rejectedRows;
+            }
+            writer.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while pricing a quote file.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new IllegalStateException("Pricing a quote file failed.", e.getCause());
+        } finally {
+            readerThread.interrupt();
+            workers.shutdownNow();
+        }
+        return new QuoteFileSummary(rows, rejectedRows);
+    }
+
+    private void readChunks(Reader reader, ToolCodeTable toolCodeTable, ExecutorService workers, BlockingQueue<Future<PricedChunk>> pending) {
+        try {
+            Future<PricedChunk> last;
+            try {
+                char[] carry = new char[0];
+                int carryLength = 0;
+                boolean endOfInput = false;
+                while (!endOfInput) {
+                    char[] buffer = Arrays.copyOf(carry, Math.max(chunkRows * AVERAGE_ROW_CHARS, carryLength + MIN_FREE_CHARS));
+                    int length = carryLength;
+                    int read;
+                    while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) >= 0) {
+                        length += read;
+                    }
+                    endOfInput = length < buffer.length;
+
+                    int chunkEnd = endOfInput ? length : lastIndexOf('\n', buffer, length) + 1;
+                    if (!endOfInput && chunkEnd == 0) {
+                        throw new IOException("Please keep quote file rows under " + buffer.length + " characters.");
+                    }
+                    carryLength = length - chunkEnd;
+                    carry = Arrays.copyOfRange(buffer, chunkEnd, chunkEnd + carryLength);
+                    if (chunkEnd > 0) {
+                        int end = chunkEnd;
+                        pending.put(workers.submit(() -> price(buffer, end, toolCodeTable)));
+                    }
+                }
+                last = CompletableFuture.completedFuture(PricedChunk.END);
+            } catch (IOException e) {
+                last = CompletableFuture.failedFuture(new UncheckedIOException(e));
+            }
+            pending.put(last);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private PricedChunk price(char[] chars, int length, ToolCodeTable toolCodeTable) {
+        StringBuilder output = new StringBuilder(length * 4);
+        int[] fieldStarts = new int[5];
+        int rows = 0;
+        int rejectedRows = 0;
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && chars[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int next = lineEnd + 1;
+            if (lineEnd > lineStart && chars[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart && chars[lineStart] != '#' && !startsWith(chars, lineStart, lineEnd, "toolCode,")) {
+                rows++;
+                if (!priceRow(chars, lineStart, lineEnd, fieldStarts, toolCodeTable, output)) {
+                    rejectedRows++;
+                }
+            }
+            lineStart = next;
+        }
+        return new PricedChunk(output, rows, rejectedRows);
+    }
+
+    /**
+     * @return false if the row was rejected
+     */
+    private boolean priceRow(char[] chars, int start, int end, int[] fieldStarts, ToolCodeTable toolCodeTable, StringBuilder output) {
+        // fieldStarts[i] is where field i begins; field i ends one character before fieldStarts[i + 1]
+        int fields = 0;
+        fieldStarts[fields++] = start;
+        for (int i = start; i < end; i++) {
+            if (chars[i] == ',') {
+                if (fields == 4) {
+                    return reject(chars, start, end, CheckoutError.MALFORMED_ROW, output);
+                }
+                fieldStarts[fields++] = i + 1;
+            }
+        }
+        fieldStarts[fields] = end + 1;
+        if (fields != 4) {
+            return reject(chars, start, end, CheckoutError.MALFORMED_ROW, output);
+        }
+
+        Tool tool = toolCodeTable.find(chars, fieldStarts[0], fieldStarts[1] - 1);
+        LocalDate checkoutDate = parseDate(chars, fieldStarts[1], fieldStarts[2] - 1);
+        int rentalDays = parseInt(chars, fieldStarts[2], fieldStarts[3] - 1);
+        int discountPercent = parseInt(chars, fieldStarts[3], fieldStarts[4] - 1);
+        if (checkoutDate == null || rentalDays == Integer.MIN_VALUE || discountPercent == Integer.MIN_VALUE) {
+            return reject(chars, start, end, CheckoutError.MALFORMED_ROW, output);
+        }
+        if (tool == null) {
+            return reject(chars, start, end, CheckoutError.UNKNOWN_TOOL, output);
+        }
+        CheckoutError validationError = RentalAgreementService.validate(rentalDays, discountPercent);
+        if (validationError != null) {
+            return reject(chars, start, end, validationError, output);
+        }
+
+        CompactRentalAgreement compactRentalAgreement;
+        try {
+            compactRentalAgreement = rentalAgreementService.priceCompact(tool, rentalDays, discountPercent, checkoutDate);
+        } catch (CheckoutValidationException e) {
+            return reject(chars, start, end, e.getError(), output);
+        } catch (IllegalArgumentException e) {
+            return reject(chars, start, end, CheckoutError.OUT_OF_RANGE, output);
+        }
+        RentalAgreementRenderer.appendCsv(compactRentalAgreement, output);
+        output.setCharAt(output.length() - 1, ',');
+        output.append('\n');
+        return true;
+    }
+
+    /**
+     * Echoes the row's fields into their output columns and names the error. Fields of a malformed row are not
+     * echoed since they may not be where the columns expect them.
+     */
+    private static boolean reject(char[] chars, int start, int end, CheckoutError error, StringBuilder output) {
+        if (error == CheckoutError.MALFORMED_ROW) {
+            output.append(",,,,,,,,,,,,").append(error.name()).append('\n');
+            return false;
+        }
+        int toolCodeEnd = indexOf(',', chars, start, end);
+        int checkoutDateEnd = indexOf(',', chars, toolCodeEnd + 1, end);
+        int rentalDaysEnd = indexOf(',', chars, checkoutDateEnd + 1, end);
+        output.append(chars, start, toolCodeEnd - start).append(",,,");
+        output.append(chars, checkoutDateEnd + 1, rentalDaysEnd - checkoutDateEnd - 1).append(',');
+        output.append(chars, toolCodeEnd + 1, checkoutDateEnd - toolCodeEnd - 1).append(",,,,,");
+        output.append(chars, rentalDaysEnd + 1, end - rentalDaysEnd - 1).append(",,,");
+        output.append(error.name()).append('\n');
+        return false;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd}.
+     *
+     * @return null if the characters are not a valid date
+     */
+    static LocalDate parseDate(char[] chars, int start, int end) {
+        if (end - start != 10 || chars[start + 4] != '-' || chars[start + 7] != '-') {
+            return null;
+        }
+        int year = parseInt(chars, start, start + 4);
+        int month = parseInt(chars, start + 5, start + 7);
+        int dayOfMonth = parseInt(chars, start + 8, end);
+        if (year < 0 || month < 0 || dayOfMonth < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, dayOfMonth);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses an optionally signed decimal int, ignoring surrounding spaces.
+     *
+     * @return {@link Integer#MIN_VALUE} if the characters are not an int
+     */
+    static int parseInt(char[] chars, int start, int end) {
+        while (start < end && chars[start] == ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] == ' ') {
+            end--;
+        }
+        boolean negative = start < end && chars[start] == '-';
+        if (negative || (start < end && chars[start] == '+')) {
+            start++;
+        }
+        if (start == end || end - start > 9) {
+            return Integer.MIN_VALUE;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean startsWith(char[] chars, int start, int end, String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (chars[start + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(char c, char[] chars, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int lastIndexOf(char c, char[] chars, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record PricedChunk(CharSequence output, int rows, int rejectedRows) {
+        static final PricedChunk END = new PricedChunk("", 0, 0);
+    }
+
+    /**
+     * Open-addressing table from tool code to tool, probed with the code's characters in place so looking up a row's
+     * tool does not create a String.
+     */
+    private static final class ToolCodeTable {
+        private final Tool[] tools;
+        private final int mask;
+
+        private ToolCodeTable(List<Tool> catalogTools) {
+            int capacity = Integer.highestOneBit(Math.max(catalogTools.size(), 1) * 4 - 1) << 1;
+            tools = new Tool[capacity];
+            mask = capacity - 1;
+            for (Tool tool : catalogTools) {
+                String toolCode = tool.getToolCode();
+                int slot = toolCode.hashCode() & mask;
+                while (tools[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                tools[slot] = tool;
+            }
+        }
+
+        private Tool find(char[] chars, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + chars[i];
+            }
+            for (int slot = hash & mask; tools[slot] != null; slot = (slot + 1) & mask) {
+                if (matches(tools[slot].getToolCode(), chars, start, end)) {
+                    return tools[slot];
+                }
+            }
+            return null;
+        }
+
+        private static boolean matches(String toolCode, char[] chars, int start, int end) {
+            if (toolCode.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < toolCode.length(); i++) {
+                if (toolCode.charAt(i) != chars[start + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
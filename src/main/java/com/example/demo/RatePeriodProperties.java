@@ -0,0 +1,20 @@
+package com.example.demo;
+
+import com.example.demo.model.RatePeriod;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate periods bound from {@code rental.rate-periods[n].*}. None are configured by default, so every tool is charged
+ * its catalog daily charge.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rental")
+public class RatePeriodProperties {
+    private List<RatePeriod> ratePeriods = new ArrayList<>();
+}
@@ -0,0 +1,213 @@
+package com.example.demo;
+
+import com.example.demo.model.Tool;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.example.demo.HolidayCheckerService.dayOfWeekIndex;
+
+/**
+ * One tool's daily charges over time, built by {@link RateScheduleCompiler}. The timeline is cut at the dates where
+ * the charge changes; segment k (1 to m) is [bounds[k - 1], bounds[k]) and the open-ended segments before the first
+ * and after the last bound charge the tool's catalog rate, as can segments in between.
+ * <p>
+ * For every bounded segment the weekday and weekend charges (rate times the number of those days) are accumulated
+ * into prefix sums, with catalog-rate days counted separately so the catalog charge is applied at pricing time. The
+ * holidays to take off are kept the same way, in prefix sums built the first time a holiday calendar is used and
+ * held in a small direct-mapped table keyed by calendar identity. The charge of a rental is then two binary
+ * searches, the two partial segments at its ends and one prefix sum difference for everything in between, however
+ * many segments it crosses.
+ */
+public class RateSchedule {
+    private static final int HOLIDAY_SUM_SLOTS = 8;
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+            100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+            100_000_000_000_000L, 1_000_000_000_000_000L, 1_000_000_000_000_000_000L};
+
+    private final String toolCode;
+    private final int scale;
+    private final long[] bounds;
+    private final boolean[] catalogRate;
+    private final long[] weekdayRates;
+    private final long[] weekendRates;
+    private final SegmentSums daySums;
+    private final AtomicReferenceArray<SegmentSums> holidaySums = new AtomicReferenceArray<>(HOLIDAY_SUM_SLOTS);
+
+    /**
+     * @param scale the scale of the unscaled rates
+     * @param bounds the sorted dates (epoch days) at which the charge changes
+     * @param segmentRates the unscaled {weekday, weekend} rates of each bounded segment, or null for the catalog rate
+     * @throws ArithmeticException if a segment's charge does not fit a long
+     */
+    RateSchedule(String toolCode, int scale, long[] bounds, long[][] segmentRates) throws ArithmeticException {
+        int segments = bounds.length - 1;
+        this.toolCode = toolCode;
+        this.scale = scale;
+        this.bounds = bounds;
+        this.catalogRate = new boolean[segments + 2];
+        this.weekdayRates = new long[segments + 2];
+        this.weekendRates = new long[segments + 2];
+        catalogRate[0] = true;
+        catalogRate[segments + 1] = true;
+        for (int k = 1; k <= segments; k++) {
+            long[] rates = segmentRates[k - 1];
+            catalogRate[k] = rates == null;
+            if (rates != null) {
+                weekdayRates[k] = rates[0];
+                weekendRates[k] = rates[1];
+            }
+        }
+        this.daySums = new SegmentSums(null);
+    }
+
+    /**
+     * The pre-discount charge of the chargeable days in [startDay, endDay), at the larger of the schedule's scale and
+     * the catalog charge's scale.
+     *
+     * @throws IllegalArgumentException if the charge does not fit a long at that scale
+     */
+    public BigDecimal preDiscountCharge(Tool tool, HolidayCalendarIndex holidayCalendar, long startDay, long endDay) throws IllegalArgumentException {
+        Sums sums = new Sums();
+        if (startDay < endDay) {
+            addRange(startDay, endDay, null, daySums, sums);
+            if (!tool.isHolidayCharge() && (tool.isWeekdayCharge() || tool.isWeekendCharge())) {
+                addRange(startDay, endDay, holidayCalendar, holidaySums(holidayCalendar), sums);
+            }
+        }
+
+        BigDecimal catalogCharge = tool.getDailyCharge();
+        int resultScale = Math.max(scale, catalogCharge.scale());
+        try {
+            long scheduledCharge = (tool.isWeekdayCharge() ? sums.scheduledWeekdayCharge : 0)
+                    + (tool.isWeekendCharge() ? sums.scheduledWeekendCharge : 0);
+            long catalogDays = (tool.isWeekdayCharge() ? sums.catalogWeekdays : 0) + (tool.isWeekendCharge() ? sums.catalogWeekendDays : 0);
+            long unscaledCatalogCharge = Math.multiplyExact(catalogCharge.unscaledValue().longValueExact(),
+                    powerOfTen(resultScale - catalogCharge.scale()));
+            return BigDecimal.valueOf(Math.addExact(Math.multiplyExact(scheduledCharge, powerOfTen(resultScale - scale)),
+                    Math.multiplyExact(unscaledCatalogCharge, catalogDays)), resultScale);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Please choose a shorter rental. The scheduled charge for tool " + toolCode
+                    + " is too large to price.", e);
+        }
+    }
+
+    /**
+     * Adds the days of [from, to) to {@code sums}, or with a calendar takes its holidays off them.
+     */
+    private void addRange(long from, long to, HolidayCalendarIndex holidayCalendar, SegmentSums segmentSums, Sums sums) {
+        int sign = holidayCalendar == null ? 1 : -1;
+        int first = segmentOf(from);
+        int last = segmentOf(to - 1);
+        if (first == last) {
+            addDays(first, from, to, holidayCalendar, sign, sums);
+            return;
+        }
+
+        addDays(first, from, bounds[first], holidayCalendar, sign, sums);
+        sums.scheduledWeekdayCharge += sign * (segmentSums.scheduledWeekdayCharges[last - 1] - segmentSums.scheduledWeekdayCharges[first]);
+        sums.scheduledWeekendCharge += sign * (segmentSums.scheduledWeekendCharges[last - 1] - segmentSums.scheduledWeekendCharges[first]);
+        sums.catalogWeekdays += sign * (segmentSums.catalogWeekdays[last - 1] - segmentSums.catalogWeekdays[first]);
+        sums.catalogWeekendDays += sign * (segmentSums.catalogWeekendDays[last - 1] - segmentSums.catalogWeekendDays[first]);
+        addDays(last, bounds[last - 1], to, holidayCalendar, sign, sums);
+    }
+
+    private void addDays(int segment, long from, long to, HolidayCalendarIndex holidayCalendar, int sign, Sums sums) {
+        long weekdays = sign * weekdays(from, to, holidayCalendar);
+        long weekendDays = sign * weekendDays(from, to, holidayCalendar);
+        if (catalogRate[segment]) {
+            sums.catalogWeekdays += weekdays;
+            sums.catalogWeekendDays += weekendDays;
+        } else {
+            sums.scheduledWeekdayCharge += weekdayRates[segment] * weekdays;
+            sums.scheduledWeekendCharge += weekendRates[segment] * weekendDays;
+        }
+    }
+
+    private SegmentSums holidaySums(HolidayCalendarIndex holidayCalendar) {
+        int slot = System.identityHashCode(holidayCalendar) & (HOLIDAY_SUM_SLOTS - 1);
+        SegmentSums segmentSums = holidaySums.get(slot);
+        if (segmentSums == null || segmentSums.holidayCalendar != holidayCalendar) {
+            segmentSums = new SegmentSums(holidayCalendar);
+            holidaySums.set(slot, segmentSums);
+        }
+        return segmentSums;
+    }
+
+    /**
+     * @return the segment containing the day: the number of bounds at or before it
+     */
+    private int segmentOf(long epochDay) {
+        int index = Arrays.binarySearch(bounds, epochDay);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Weekdays in [from, to), or the calendar's weekday holidays in it.
+     */
+    private static long weekdays(long from, long to, HolidayCalendarIndex holidayCalendar) {
+        return holidayCalendar == null ? countWeekdays(from, to) : holidayCalendar.countWeekdayHolidays(from, to);
+    }
+
+    private static long weekendDays(long from, long to, HolidayCalendarIndex holidayCalendar) {
+        return holidayCalendar == null ? to - from - countWeekdays(from, to) : holidayCalendar.countWeekendHolidays(from, to);
+    }
+
+    /**
+     * Number of Mondays through Fridays in [fromEpochDay, toEpochDay).
+     */
+    static long countWeekdays(long fromEpochDay, long toEpochDay) {
+        long days = toEpochDay - fromEpochDay;
+        long weekdays = (days / 7) * 5;
+        int firstDayOfWeek = dayOfWeekIndex(fromEpochDay);
+        for (int i = 0; i < days % 7; i++) {
+            if ((firstDayOfWeek + i) % 7 < 5) {
+                weekdays++;
+            }
+        }
+        return weekdays;
+    }
+
+    private static long powerOfTen(int exponent) {
+        if (exponent >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("10^" + exponent + " does not fit a long");
+        }
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Prefix sums over the bounded segments of every day, or of a calendar's holidays: entry k covers segments 1 to k.
+     */
+    private final class SegmentSums {
+        private final HolidayCalendarIndex holidayCalendar;
+        private final long[] scheduledWeekdayCharges;
+        private final long[] scheduledWeekendCharges;
+        private final long[] catalogWeekdays;
+        private final long[] catalogWeekendDays;
+
+        private SegmentSums(HolidayCalendarIndex holidayCalendar) throws ArithmeticException {
+            int segments = bounds.length - 1;
+            this.holidayCalendar = holidayCalendar;
+            this.scheduledWeekdayCharges = new long[segments + 1];
+            this.scheduledWeekendCharges = new long[segments + 1];
+            this.catalogWeekdays = new long[segments + 1];
+            this.catalogWeekendDays = new long[segments + 1];
+            for (int k = 1; k <= segments; k++) {
+                long weekdays = weekdays(bounds[k - 1], bounds[k], holidayCalendar);
+                long weekendDays = weekendDays(bounds[k - 1], bounds[k], holidayCalendar);
+                scheduledWeekdayCharges[k] = Math.addExact(scheduledWeekdayCharges[k - 1], Math.multiplyExact(weekdayRates[k], weekdays));
+                scheduledWeekendCharges[k] = Math.addExact(scheduledWeekendCharges[k - 1], Math.multiplyExact(weekendRates[k], weekendDays));
+                catalogWeekdays[k] = catalogWeekdays[k - 1] + (catalogRate[k] ? weekdays : 0);
+                catalogWeekendDays[k] = catalogWeekendDays[k - 1] + (catalogRate[k] ? weekendDays : 0);
+            }
+        }
+    }
+
+    private static final class Sums {
+        private long scheduledWeekdayCharge;
+        private long scheduledWeekendCharge;
+        private long catalogWeekdays;
+        private long catalogWeekendDays;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo;
+
+import com.example.demo.model.RatePeriod;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Turns {@link RatePeriod} definitions into one {@link RateSchedule} per tool code. Overlapping periods are resolved
+ * once here, later periods taking precedence, and adjacent days with the same rates are merged, so pricing never
+ * looks at the periods themselves.
+ */
+public class RateScheduleCompiler {
+
+    public static Map<String, RateSchedule> compile(List<RatePeriod> ratePeriods) throws IllegalArgumentException {
+        Map<String, List<RatePeriod>> periodsByTool = new LinkedHashMap<>();
+        for (RatePeriod ratePeriod : ratePeriods) {
+            validate(ratePeriod);
+            periodsByTool.computeIfAbsent(ratePeriod.getToolCode(), toolCode -> new ArrayList<>()).add(ratePeriod);
+        }
+
+        Map<String, RateSchedule> schedules = new HashMap<>();
+        for (Map.Entry<String, List<RatePeriod>> toolPeriods : periodsByTool.entrySet()) {
+            schedules.put(toolPeriods.getKey(), compileTool(toolPeriods.getKey(), toolPeriods.getValue()));
+        }
+        return schedules;
+    }
+
+    private static RateSchedule compileTool(String toolCode, List<RatePeriod> ratePeriods) {
+        int scale = 0;
+        TreeSet<Long> changeDays = new TreeSet<>();
+        for (RatePeriod ratePeriod : ratePeriods) {
+            scale = Math.max(scale, ratePeriod.getDailyCharge().scale());
+            if (ratePeriod.getWeekendDailyCharge() != null) {
+                scale = Math.max(scale, ratePeriod.getWeekendDailyCharge().scale());
+            }
+            changeDays.add(ratePeriod.getStartDate().toEpochDay());
+            changeDays.add(ratePeriod.getEndDate().toEpochDay() + 1);
+        }
+
+        // walk the elementary intervals between change days, keeping a bound only where the rates actually change
+        List<Long> bounds = new ArrayList<>();
+        List<long[]> segmentRates = new ArrayList<>();
+        long[] previousRates = null;
+        Long[] days = changeDays.toArray(new Long[0]);
+        for (int i = 0; i < days.length; i++) {
+            long[] rates = i + 1 < days.length ? ratesOf(ratePeriods, days[i], days[i + 1], scale) : null;
+            if (!Arrays.equals(rates, previousRates)) {
+                bounds.add(days[i]);
+                segmentRates.add(rates);
+                previousRates = rates;
+            }
+        }
+        // the rates after the last bound are the catalog rate, so only the segments between bounds are kept
+        segmentRates.remove(segmentRates.size() - 1);
+
+        try {
+            return new RateSchedule(toolCode, scale, bounds.stream().mapToLong(Long::longValue).toArray(), segmentRates.toArray(new long[0][]));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid rate periods for tool " + toolCode + ": the charges are too large to price.", e);
+        }
+    }
+
+    /**
+     * @return the unscaled {weekday, weekend} rates of the last period covering [from, to), or null if none does
+     */
+    private static long[] ratesOf(List<RatePeriod> ratePeriods, long from, long to, int scale) {
+        for (int i = ratePeriods.size() - 1; i >= 0; i--) {
+            RatePeriod ratePeriod = ratePeriods.get(i);
+            if (ratePeriod.getStartDate().toEpochDay() <= from && ratePeriod.getEndDate().toEpochDay() + 1 >= to) {
+                BigDecimal weekendDailyCharge = Objects.requireNonNullElse(ratePeriod.getWeekendDailyCharge(), ratePeriod.getDailyCharge());
+                try {
+                    return new long[]{unscaled(ratePeriod.getDailyCharge(), scale), unscaled(weekendDailyCharge, scale)};
+                } catch (ArithmeticException e) {
+                    throw invalidRatePeriod(ratePeriod, "the daily charges must fit 18 digits");
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long unscaled(BigDecimal charge, int scale) throws ArithmeticException {
+        return charge.setScale(scale).unscaledValue().longValueExact();
+    }
+
+    private static void validate(RatePeriod ratePeriod) throws IllegalArgumentException {
+        if (ratePeriod.getToolCode() == null || ratePeriod.getToolCode().isBlank()) {
+            throw invalidRatePeriod(ratePeriod, "a tool code is required");
+        }
+        if (ratePeriod.getStartDate() == null || ratePeriod.getEndDate() == null) {
+            throw invalidRatePeriod(ratePeriod, "a start date and an end date are required");
+        }
+        if (ratePeriod.getEndDate().isBefore(ratePeriod.getStartDate())) {
+            throw invalidRatePeriod(ratePeriod, "the end date must be on or after the start date");
+        }
+        if (ratePeriod.getDailyCharge() == null || ratePeriod.getDailyCharge().signum() < 0
+                || (ratePeriod.getWeekendDailyCharge() != null && ratePeriod.getWeekendDailyCharge().signum() < 0)) {
+            throw invalidRatePeriod(ratePeriod, "a daily charge of 0 or more is required, and the weekend daily charge cannot be negative");
+        }
+    }
+
+    private static IllegalArgumentException invalidRatePeriod(RatePeriod ratePeriod, String reason) {
+        return new IllegalArgumentException("Invalid rate period '" + Objects.toString(ratePeriod.getName(), "") + "': " + reason + ".");
+    }
+}
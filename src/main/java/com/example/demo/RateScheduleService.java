@@ -0,0 +1,59 @@
+package com.example.demo;
+
+import com.example.demo.model.RatePeriod;
+import com.example.demo.model.Tool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the compiled {@link RateSchedule} of every tool with rate periods. The schedules are immutable and replaced
+ * wholesale by {@link #useRatePeriods}, so one instance can be shared by every checkout thread. Agreements for a
+ * scheduled tool still show its catalog daily charge; their pre-discount charge is the sum of the scheduled rates.
+ */
+@Service
+public class RateScheduleService {
+
+    private volatile Map<String, RateSchedule> rateSchedules;
+    private volatile long version;
+
+    @Autowired
+    public RateScheduleService(RatePeriodProperties ratePeriodProperties) {
+        this(ratePeriodProperties.getRatePeriods());
+    }
+
+    /**
+     * A service without rate periods.
+     */
+    public RateScheduleService() {
+        this(List.of());
+    }
+
+    public RateScheduleService(List<RatePeriod> ratePeriods) throws IllegalArgumentException {
+        useRatePeriods(ratePeriods);
+    }
+
+    /**
+     * Compiles the given rate periods and atomically replaces the schedules used by all checkouts.
+     */
+    public synchronized void useRatePeriods(List<RatePeriod> ratePeriods) throws IllegalArgumentException {
+        rateSchedules = RateScheduleCompiler.compile(ratePeriods);
+        version++;
+    }
+
+    /**
+     * Incremented every time the rate periods are replaced, so caches derived from them can tell when they are stale.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the tool's schedule, or null if it is always charged its catalog daily charge
+     */
+    public RateSchedule findRateSchedule(Tool tool) {
+        return rateSchedules.get(tool.getToolCode());
+    }
+}
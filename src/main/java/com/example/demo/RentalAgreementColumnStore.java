@@ -0,0 +1,323 @@
+package com.example.demo;
+
+import com.example.demo.model.CompactRentalAgreement;
+import com.example.demo.model.RentalAgreement;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Keeps the fields of rental agreements in off-heap columns for reporting, so aggregating millions of rentals
+ * neither materializes agreements nor creates garbage per row. Rows live in chunks of {@code chunkRows}; each chunk
+ * holds one direct buffer per column:
+ * <pre>
+ *   int   tool id (index into the tool code dictionary)
+ *   int   checkout epoch day
+ *   int   rental days, int charge days
+ *   byte  discount percent
+ *   long  pre-discount charge, long discount amount   (cents)
+ * </pre>
+ * which comes to 33 bytes a row. Tool codes and tool types are dictionary-encoded; a code's type is the one on the
+ * first agreement appended for it. The final charge is not stored since it is the difference of the two amounts.
+ * <p>
+ * The aggregates are single passes over the primitive columns with no allocation inside the loop. Appends are
+ * serialized; an aggregate sees every row appended before it started and can run concurrently with further
+ * appends. The store can be attached as a {@link RentalAgreementSink} or loaded from history with
+ * {@code ledger.forEach(store::append)}.
+ */
+public class RentalAgreementColumnStore implements RentalAgreementSink {
+    public static final int DEFAULT_CHUNK_ROWS = 1 << 16;
+
+    private static final int MONEY_SCALE = 2;
+    private static final int MAX_CHUNK_ROWS = Integer.MAX_VALUE / Long.BYTES;
+    private static final int MAX_REPORT_CELLS = 1 << 24;
+    private static final int MAX_MONTH_TABLE_DAYS = 1 << 20;
+
+    private final int chunkRows;
+    private final Map<String, Integer> toolIds = new HashMap<>();
+    private final Map<String, Integer> toolTypeIds = new HashMap<>();
+    private final List<String> toolTypes = new ArrayList<>();
+    private int[] toolTypeIdByToolId = new int[16];
+    private Chunk[] chunks = new Chunk[16];
+    private long size;
+    private int minCheckoutDay = Integer.MAX_VALUE;
+    private int maxCheckoutDay = Integer.MIN_VALUE;
+
+    public RentalAgreementColumnStore() {
+        this(DEFAULT_CHUNK_ROWS);
+    }
+
+    public RentalAgreementColumnStore(int chunkRows) {
+        if (chunkRows < 1 || chunkRows > MAX_CHUNK_ROWS) {
+            throw new IllegalArgumentException("Please choose a column store chunk size between 1 and " + MAX_CHUNK_ROWS + " rows.");
+        }
+        this.chunkRows = chunkRows;
+    }
+
+    @Override
+    public void accept(RentalAgreement rentalAgreement) {
+        append(rentalAgreement);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the checkout date is not within the range of an int epoch day or a charge
+     * has fractions of a cent
+     */
+    public void append(RentalAgreement rentalAgreement) throws IllegalArgumentException {
+        long checkoutDay = rentalAgreement.getCheckoutDate().toEpochDay();
+        if (checkoutDay != (int) checkoutDay) {
+            throw new IllegalArgumentException("Please choose a checkout date within about five million years of 1970 for the column store.");
+        }
+        append(rentalAgreement.getToolCode(), rentalAgreement.getToolType(), (int) checkoutDay, rentalAgreement.getRentalDays(),
+                rentalAgreement.getChargeDays(), rentalAgreement.getDiscountPercent(), cents(rentalAgreement.getPreDiscountCharge()),
+                cents(rentalAgreement.getDiscountAmount()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if a charge has fractions of a cent
+     */
+    public void append(CompactRentalAgreement rentalAgreement) throws IllegalArgumentException {
+        int scale = rentalAgreement.dailyRentalCharge().scale();
+        long preDiscountCharge = rentalAgreement.preDiscountChargeUnscaled();
+        long discountAmount = rentalAgreement.discountAmountUnscaled();
+        if (scale != MONEY_SCALE) {
+            preDiscountCharge = cents(BigDecimal.valueOf(preDiscountCharge, scale));
+            discountAmount = cents(BigDecimal.valueOf(discountAmount, scale));
+        }
+        append(rentalAgreement.toolCode(), rentalAgreement.toolType(), rentalAgreement.checkoutEpochDay(), rentalAgreement.rentalDays(),
+                rentalAgreement.chargeDays(), rentalAgreement.discountPercent(), preDiscountCharge, discountAmount);
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Sums final charges by tool type and checkout month over every row.
+     */
+    public SortedMap<String, SortedMap<YearMonth, BigDecimal>> revenueByToolTypeAndMonth() {
+        Snapshot snapshot = snapshot();
+        if (snapshot.size == 0) {
+            return new TreeMap<>();
+        }
+        return revenueByToolTypeAndMonth(snapshot, snapshot.minCheckoutDay, snapshot.maxCheckoutDay + 1L);
+    }
+
+    /**
+     * Sums final charges by tool type and checkout month over the rows checked out in [from, to).
+     *
+     * @throws IllegalArgumentException if the range is empty or spans too many months to report on at once
+     */
+    public SortedMap<String, SortedMap<YearMonth, BigDecimal>> revenueByToolTypeAndMonth(LocalDate from, LocalDate to) throws IllegalArgumentException {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Please choose a report end date after its start date.");
+        }
+        return revenueByToolTypeAndMonth(snapshot(), from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Sums the discount amounts over every row.
+     */
+    public BigDecimal totalDiscount() {
+        return totalDiscount(snapshot(), Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Sums the discount amounts over the rows checked out in [from, to).
+     */
+    public BigDecimal totalDiscount(LocalDate from, LocalDate to) {
+        return totalDiscount(snapshot(), from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Releases nothing: the column buffers are freed with the store once it is unreachable.
+     */
+    @Override
+    public void close() {
+    }
+
+    private synchronized void append(String toolCode, String toolType, int checkoutDay, int rentalDays, int chargeDays,
+                                     int discountPercent, long preDiscountCharge, long discountAmount) {
+        int toolId = toolId(toolCode, toolType);
+        int chunkIndex = (int) (size / chunkRows);
+        int row = (int) (size % chunkRows);
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkIndex * 2);
+        }
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = new Chunk(chunkRows);
+        }
+
+        Chunk chunk = chunks[chunkIndex];
+        chunk.toolIds.put(row, toolId);
+        chunk.checkoutDays.put(row, checkoutDay);
+        chunk.rentalDays.put(row, rentalDays);
+        chunk.chargeDays.put(row, chargeDays);
+        chunk.discountPercents.put(row, (byte) discountPercent);
+        chunk.preDiscountCharges.put(row, preDiscountCharge);
+        chunk.discountAmounts.put(row, discountAmount);
+        minCheckoutDay = Math.min(minCheckoutDay, checkoutDay);
+        maxCheckoutDay = Math.max(maxCheckoutDay, checkoutDay);
+        size++;
+    }
+
+    private int toolId(String toolCode, String toolType) {
+        Integer toolId = toolIds.get(toolCode);
+        if (toolId != null) {
+            return toolId;
+        }
+        int toolTypeId = toolTypeIds.computeIfAbsent(toolType, type -> {
+            toolTypes.add(type);
+            return toolTypes.size() - 1;
+        });
+        int newToolId = toolIds.size();
+        if (newToolId == toolTypeIdByToolId.length) {
+            toolTypeIdByToolId = Arrays.copyOf(toolTypeIdByToolId, newToolId * 2);
+        }
+        toolTypeIdByToolId[newToolId] = toolTypeId;
+        toolIds.put(toolCode, newToolId);
+        return newToolId;
+    }
+
+    private synchronized Snapshot snapshot() {
+        return new Snapshot(size, chunks.clone(), Arrays.copyOf(toolTypeIdByToolId, toolIds.size()), toolTypes.toArray(new String[0]),
+                minCheckoutDay, maxCheckoutDay);
+    }
+
+    private SortedMap<String, SortedMap<YearMonth, BigDecimal>> revenueByToolTypeAndMonth(Snapshot snapshot, long fromDay, long toDay) {
+        long firstMonth = monthIndex(fromDay);
+        long months = monthIndex(toDay - 1) - firstMonth + 1;
+        if (months * Math.max(snapshot.toolTypes.length, 1) > MAX_REPORT_CELLS) {
+            throw new IllegalArgumentException("Please choose a shorter date range for the monthly revenue report.");
+        }
+
+        // one cell per (tool type, month), laid out type-major
+        int monthCount = (int) months;
+        long[] revenue = new long[snapshot.toolTypes.length * monthCount];
+        int[] rows = new int[revenue.length];
+        int[] toolTypeIdByToolId = snapshot.toolTypeIdByToolId;
+        // converting a day to its month takes a dozen divisions, so for the usual span of a few decades the months of
+        // the days that actually occur are looked up in a table instead
+        long firstDay = Math.max(fromDay, snapshot.minCheckoutDay);
+        long lastDay = Math.min(toDay, snapshot.maxCheckoutDay + 1L);
+        int[] monthOffsetByDay = null;
+        if (lastDay - firstDay <= MAX_MONTH_TABLE_DAYS) {
+            monthOffsetByDay = new int[(int) Math.max(lastDay - firstDay, 0)];
+            for (int day = 0; day < monthOffsetByDay.length; day++) {
+                monthOffsetByDay[day] = (int) (monthIndex(firstDay + day) - firstMonth);
+            }
+        }
+        for (int chunkIndex = 0; chunkIndex < snapshot.chunkCount(chunkRows); chunkIndex++) {
+            Chunk chunk = snapshot.chunks[chunkIndex];
+            int chunkSize = snapshot.rowsIn(chunkIndex, chunkRows);
+            for (int row = 0; row < chunkSize; row++) {
+                int checkoutDay = chunk.checkoutDays.get(row);
+                if (checkoutDay < firstDay || checkoutDay >= lastDay) {
+                    continue;
+                }
+                int monthOffset = monthOffsetByDay != null
+                        ? monthOffsetByDay[(int) (checkoutDay - firstDay)]
+                        : (int) (monthIndex(checkoutDay) - firstMonth);
+                int cell = toolTypeIdByToolId[chunk.toolIds.get(row)] * monthCount + monthOffset;
+                revenue[cell] += chunk.preDiscountCharges.get(row) - chunk.discountAmounts.get(row);
+                rows[cell]++;
+            }
+        }
+
+        SortedMap<String, SortedMap<YearMonth, BigDecimal>> report = new TreeMap<>();
+        for (int cell = 0; cell < revenue.length; cell++) {
+            if (rows[cell] > 0) {
+                long month = firstMonth + cell % monthCount;
+                report.computeIfAbsent(snapshot.toolTypes[cell / monthCount], type -> new TreeMap<>())
+                        .put(YearMonth.of((int) Math.floorDiv(month, 12), (int) Math.floorMod(month, 12) + 1),
+                                BigDecimal.valueOf(revenue[cell], MONEY_SCALE));
+            }
+        }
+        return report;
+    }
+
+    private BigDecimal totalDiscount(Snapshot snapshot, long fromDay, long toDay) {
+        long total = 0;
+        for (int chunkIndex = 0; chunkIndex < snapshot.chunkCount(chunkRows); chunkIndex++) {
+            Chunk chunk = snapshot.chunks[chunkIndex];
+            int chunkSize = snapshot.rowsIn(chunkIndex, chunkRows);
+            for (int row = 0; row < chunkSize; row++) {
+                int checkoutDay = chunk.checkoutDays.get(row);
+                if (checkoutDay >= fromDay && checkoutDay < toDay) {
+                    total += chunk.discountAmounts.get(row);
+                }
+            }
+        }
+        return BigDecimal.valueOf(total, MONEY_SCALE);
+    }
+
+    /**
+     * {@code year * 12 + month - 1} of an epoch day, using the days-to-civil arithmetic of Howard Hinnant's
+     * date algorithms rather than building a {@link LocalDate} per row.
+     */
+    static long monthIndex(long epochDay) {
+        long shifted = epochDay + 719468;
+        long era = Math.floorDiv(shifted, 146097);
+        long dayOfEra = shifted - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long marchBasedMonth = (5 * dayOfYear + 2) / 153;
+        long month = marchBasedMonth < 10 ? marchBasedMonth + 3 : marchBasedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    private static long cents(BigDecimal amount) {
+        try {
+            return amount.setScale(MONEY_SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Please store charges in whole cents. " + amount + " cannot be stored in the column store.", e);
+        }
+    }
+
+    private static final class Chunk {
+        private final IntBuffer toolIds;
+        private final IntBuffer checkoutDays;
+        private final IntBuffer rentalDays;
+        private final IntBuffer chargeDays;
+        private final ByteBuffer discountPercents;
+        private final LongBuffer preDiscountCharges;
+        private final LongBuffer discountAmounts;
+
+        private Chunk(int rows) {
+            toolIds = direct(rows * Integer.BYTES).asIntBuffer();
+            checkoutDays = direct(rows * Integer.BYTES).asIntBuffer();
+            rentalDays = direct(rows * Integer.BYTES).asIntBuffer();
+            chargeDays = direct(rows * Integer.BYTES).asIntBuffer();
+            discountPercents = direct(rows);
+            preDiscountCharges = direct(rows * Long.BYTES).asLongBuffer();
+            discountAmounts = direct(rows * Long.BYTES).asLongBuffer();
+        }
+
+        private static ByteBuffer direct(int bytes) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    private record Snapshot(long size, Chunk[] chunks, int[] toolTypeIdByToolId, String[] toolTypes, int minCheckoutDay, int maxCheckoutDay) {
+        int chunkCount(int chunkRows) {
+            return (int) ((size + chunkRows - 1) / chunkRows);
+        }
+
+        int rowsIn(int chunkIndex, int chunkRows) {
+            return (int) Math.min(chunkRows, size - (long) chunkIndex * chunkRows);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo;
+
+public enum RentalAgreementFormat {
+    TEXT,
+    CSV,
+    JSON
+}
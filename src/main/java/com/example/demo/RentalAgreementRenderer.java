@@ -0,0 +1,277 @@
+package com.example.demo;
+
+import com.example.demo.model.CompactRentalAgreement;
+import com.example.demo.model.RentalAgreement;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Renders rental agreements as the text checkout used to print, or as CSV or JSON, appending into a
+ * caller-supplied {@link StringBuilder} so bulk exports can reuse one buffer. Money and {@code MM/dd/yy} dates are
+ * formatted by hand rather than through {@code DecimalFormat}/{@code DateTimeFormatter}; the text form is
+ * identical to what {@code new DecimalFormat("$#,##0.00")} and {@code DateTimeFormatter.ofPattern("MM/dd/yy")}
+ * produced.
+ */
+public class RentalAgreementRenderer {
+    static final String SEPARATOR = "----------------------------------------------------";
+
+    public static final String CSV_HEADER = "toolCode,toolType,toolBrand,rentalDays,checkoutDate,dueDate,dailyRentalCharge,"
+            + "chargeDays,preDiscountCharge,discountPercent,discountAmount,finalCharge";
+
+    private static final String NEW_LINE = System.lineSeparator();
+    private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+    public static String render(RentalAgreement rentalAgreement) {
+        return appendText(rentalAgreement, new StringBuilder(512)).toString();
+    }
+
+    public static StringBuilder append(RentalAgreement rentalAgreement, RentalAgreementFormat format, StringBuilder target) {
+        switch (format) {
+            case TEXT:
+                return appendText(rentalAgreement, target);
+            case CSV:
+                return appendCsv(rentalAgreement, target);
+            case JSON:
+                return appendJson(rentalAgreement, target);
+            default:
+                throw new IllegalArgumentException("Unsupported rental agreement format " + format + ".");
+        }
+    }
+
+    public static StringBuilder appendText(RentalAgreement rentalAgreement, StringBuilder target) {
+        target.append(SEPARATOR).append(NEW_LINE);
+        target.append("Tool code: ").append(rentalAgreement.getToolCode()).append(NEW_LINE);
+        target.append("Tool type: ").append(rentalAgreement.getToolType()).append(NEW_LINE);
+        target.append("Brand: ").append(rentalAgreement.getToolBrand()).append(NEW_LINE);
+        target.append("Rental Days: ").append(rentalAgreement.getRentalDays()).append(NEW_LINE);
+        target.append("Charge Days: ").append(rentalAgreement.getChargeDays()).append(NEW_LINE);
+        appendDate(target.append("Checkout Date: "), rentalAgreement.getCheckoutDate()).append(NEW_LINE);
+        appendDate(target.append("Due Date: "), rentalAgreement.getDueDate()).append(NEW_LINE);
+        appendMoney(target.append("Daily Rental Charge: "), rentalAgreement.getDailyRentalCharge()).append(NEW_LINE);
+        appendMoney(target.append("Pre-Discount Charge: "), rentalAgreement.getPreDiscountCharge()).append(NEW_LINE);
+        target.append("Discount Percent: ").append(rentalAgreement.getDiscountPercent()).append('%').append(NEW_LINE);
+        appendMoney(target.append("Discount Amount: "), rentalAgreement.getDiscountAmount()).append(NEW_LINE);
+        appendMoney(target.append("Final Charge: "), rentalAgreement.getFinalCharge()).append(NEW_LINE);
+        return target.append(SEPARATOR).append(NEW_LINE);
+    }
+
+    /**
+     * One CSV row in {@link #CSV_HEADER} column order, terminated by a newline. Dates are ISO-8601.
+     */
+    public static StringBuilder appendCsv(RentalAgreement rentalAgreement, StringBuilder target) {
+        appendCsvField(target, rentalAgreement.getToolCode()).append(',');
+        appendCsvField(target, rentalAgreement.getToolType()).append(',');
+        appendCsvField(target, rentalAgreement.getToolBrand()).append(',');
+        target.append(rentalAgreement.getRentalDays()).append(',');
+        target.append(rentalAgreement.getCheckoutDate()).append(',');
+        target.append(rentalAgreement.getDueDate()).append(',');
+        target.append(rentalAgreement.getDailyRentalCharge().toPlainString()).append(',');
+        target.append(rentalAgreement.getChargeDays()).append(',');
+        target.append(rentalAgreement.getPreDiscountCharge().toPlainString()).append(',');
+        target.append(rentalAgreement.getDiscountPercent()).append(',');
+        target.append(rentalAgreement.getDiscountAmount().toPlainString()).append(',');
+        return target.append(rentalAgreement.getFinalCharge().toPlainString()).append('\n');
+    }
+
+    /**
+     * The same CSV row as {@link #appendCsv(RentalAgreement, StringBuilder)} for the agreement's
+     * {@link CompactRentalAgreement#toRentalAgreement() full form}, written from the primitive fields without
+     * creating any {@link BigDecimal} or {@link String}.
+     */
+    public static StringBuilder appendCsv(CompactRentalAgreement rentalAgreement, StringBuilder target) {
+        int scale = rentalAgreement.dailyRentalCharge().scale();
+        appendCsvField(target, rentalAgreement.toolCode()).append(',');
+        appendCsvField(target, rentalAgreement.toolType()).append(',');
+        appendCsvField(target, rentalAgreement.toolBrand()).append(',');
+        target.append(rentalAgreement.rentalDays()).append(',');
+        appendIsoDate(target, rentalAgreement.checkoutDate()).append(',');
+        appendIsoDate(target, rentalAgreement.dueDate()).append(',');
+        target.append(rentalAgreement.dailyRentalCharge().toPlainString()).append(',');
+        target.append(rentalAgreement.chargeDays()).append(',');
+        appendPlain(target, rentalAgreement.preDiscountChargeUnscaled(), scale).append(',');
+        target.append(rentalAgreement.discountPercent()).append(',');
+        appendPlain(target, rentalAgreement.discountAmountUnscaled(), scale).append(',');
+        return appendPlain(target, rentalAgreement.finalChargeUnscaled(), scale).append('\n');
+    }
+
+    /**
+     * One JSON object per agreement followed by a newline, so a file of them is valid JSON Lines.
+     */
+    public static StringBuilder appendJson(RentalAgreement rentalAgreement, StringBuilder target) {
+        return appendJsonObject(rentalAgreement, target).append('\n');
+    }
+
+    /**
+     * The JSON object for an agreement with no trailing newline, for embedding in larger documents.
+     */
+    public static StringBuilder appendJsonObject(RentalAgreement rentalAgreement, StringBuilder target) {
+        target.append('{');
+        appendJsonString(target.append("\"toolCode\":"), rentalAgreement.getToolCode());
+        appendJsonString(target.append(",\"toolType\":"), rentalAgreement.getToolType());
+        appendJsonString(target.append(",\"toolBrand\":"), rentalAgreement.getToolBrand());
+        target.append(",\"rentalDays\":").append(rentalAgreement.getRentalDays());
+        target.append(",\"checkoutDate\":\"").append(rentalAgreement.getCheckoutDate()).append('"');
+        target.append(",\"dueDate\":\"").append(rentalAgreement.getDueDate()).append('"');
+        target.append(",\"dailyRentalCharge\":").append(rentalAgreement.getDailyRentalCharge().toPlainString());
+        target.append(",\"chargeDays\":").append(rentalAgreement.getChargeDays());
+        target.append(",\"preDiscountCharge\":").append(rentalAgreement.getPreDiscountCharge().toPlainString());
+        target.append(",\"discountPercent\":").append(rentalAgreement.getDiscountPercent());
+        target.append(",\"discountAmount\":").append(rentalAgreement.getDiscountAmount().toPlainString());
+        target.append(",\"finalCharge\":").append(rentalAgreement.getFinalCharge().toPlainString());
+        return target.append('}');
+    }
+
+    /**
+     * Appends a date as {@code MM/dd/yy}.
+     */
+    static StringBuilder appendDate(StringBuilder target, LocalDate date) {
+        appendTwoDigits(target, date.getMonthValue()).append('/');
+        appendTwoDigits(target, date.getDayOfMonth()).append('/');
+        return appendTwoDigits(target, Math.floorMod(date.getYear(), 100));
+    }
+
+    /**
+     * Appends an amount as {@code $#,##0.00}, rounding half-even like {@code DecimalFormat}.
+     */
+    static StringBuilder appendMoney(StringBuilder target, BigDecimal amount) {
+        BigInteger cents = amount.setScale(2, RoundingMode.HALF_EVEN).unscaledValue();
+        if (amount.signum() < 0) {
+            target.append('-');
+            cents = cents.negate();
+        }
+        target.append('$');
+
+        if (cents.compareTo(MAX_LONG) > 0) {
+            String digits = cents.toString();
+            appendGrouped(target, digits.substring(0, digits.length() - 2));
+            return target.append('.').append(digits, digits.length() - 2, digits.length());
+        }
+
+        long centsValue = cents.longValue();
+        appendGrouped(target, centsValue / 100);
+        target.append('.');
+        return appendTwoDigits(target, (int) (centsValue % 100));
+    }
+
+    private static void appendGrouped(StringBuilder target, long dollars) {
+        if (dollars < 1000) {
+            target.append(dollars);
+            return;
+        }
+        appendGrouped(target, dollars / 1000);
+        target.append(',');
+        int group = (int) (dollars % 1000);
+        if (group < 100) {
+            target.append('0');
+        }
+        if (group < 10) {
+            target.append('0');
+        }
+        target.append(group);
+    }
+
+    private static void appendGrouped(StringBuilder target, String dollars) {
+        int firstGroup = dollars.length() % 3 == 0 ? 3 : dollars.length() % 3;
+        target.append(dollars, 0, firstGroup);
+        for (int i = firstGroup; i < dollars.length(); i += 3) {
+            target.append(',').append(dollars, i, i + 3);
+        }
+    }
+
+    /**
+     * Appends a date as {@link LocalDate#toString()} does.
+     */
+    static StringBuilder appendIsoDate(StringBuilder target, LocalDate date) {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            return target.append(date);
+        }
+        appendTwoDigits(target, year / 100);
+        appendTwoDigits(target, year % 100).append('-');
+        appendTwoDigits(target, date.getMonthValue()).append('-');
+        return appendTwoDigits(target, date.getDayOfMonth());
+    }
+
+    /**
+     * Appends {@code unscaledValue * 10^-scale} as {@link BigDecimal#toPlainString()} does.
+     */
+    static StringBuilder appendPlain(StringBuilder target, long unscaledValue, int scale) {
+        if (scale <= 0 || scale > 18 || unscaledValue == Long.MIN_VALUE) {
+            return target.append(BigDecimal.valueOf(unscaledValue, scale).toPlainString());
+        }
+        if (unscaledValue < 0) {
+            target.append('-');
+            unscaledValue = -unscaledValue;
+        }
+        long divisor = 1;
+        for (int i = 0; i < scale; i++) {
+            divisor *= 10;
+        }
+        target.append(unscaledValue / divisor).append('.');
+        long fraction = unscaledValue % divisor;
+        for (long digit = divisor / 10; digit > fraction && digit > 1; digit /= 10) {
+            target.append('0');
+        }
+        return target.append(fraction);
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder target, int value) {
+        return target.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    private static StringBuilder appendCsvField(StringBuilder target, String value) {
+        if (value == null) {
+            return target;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            return target.append(value);
+        }
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                target.append('"');
+            }
+            target.append(c);
+        }
+        return target.append('"');
+    }
+
+    static StringBuilder appendJsonString(StringBuilder target, String value) {
+        if (value == null) {
+            return target.append("null");
+        }
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    target.append("\\\"");
+                    break;
+                case '\\':
+                    target.append("\\\\");
+                    break;
+                case '\n':
+                    target.append("\\n");
+                    break;
+                case '\r':
+                    target.append("\\r");
+                    break;
+                case '\t':
+                    target.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        target.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        target.append(c);
+                    }
+            }
+        }
+        return target.append('"');
+    }
+}
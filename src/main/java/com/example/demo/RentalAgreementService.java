@@ -1,41 +1,500 @@
 package com.example.demo;
 
+import com.example.demo.model.CheckoutError;
+import com.example.demo.model.CheckoutRequest;
+import com.example.demo.model.CheckoutResult;
+import com.example.demo.model.CompactRentalAgreement;
 import com.example.demo.model.RentalAgreement;
 import com.example.demo.model.Tool;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.text.DecimalFormat;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static com.example.demo.HolidayCheckerService.checkForIndependenceDay;
-import static com.example.demo.HolidayCheckerService.checkForLaborDay;
+import static com.example.demo.HolidayCheckerService.dayOfWeekIndex;
 
+/**
+ * Prices rentals. All collaborators are injected and held in final fields, and checkout keeps no per-call state
+ * outside its own stack, so a single instance serves any number of concurrent checkouts.
+ */
 @Service
 public class RentalAgreementService {
 
-    public static RentalAgreement checkout(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate) throws IllegalArgumentException {
-        RentalAgreement rentalAgreement = new RentalAgreement();
+    static final String INVALID_RENTAL_DAYS_MESSAGE = CheckoutError.INVALID_RENTAL_DAYS.getMessage();
+    static final String INVALID_DISCOUNT_MESSAGE = CheckoutError.INVALID_DISCOUNT.getMessage();
+    static final String INVALID_EXTENSION_DAYS_MESSAGE = CheckoutError.INVALID_EXTENSION_DAYS.getMessage();
+
+    private static final int BATCH_SPLIT_THRESHOLD = 1024;
+
+    private final HolidayCheckerService holidayCheckerService;
+    private final ToolCatalog toolCatalog;
+    private final RentalAgreementSink rentalAgreementSink;
+    private final PricingMode pricingMode;
+    private final QuoteCache quoteCache;
+    private final ReservationIndex reservationIndex;
+    private final CheckoutMetrics checkoutMetrics;
+    private final PromotionService promotionService;
+    private final RateScheduleService rateScheduleService;
+
+    @Autowired
+    public RentalAgreementService(HolidayCheckerService holidayCheckerService,
+                                  ToolCatalog toolCatalog,
+                                  RentalAgreementSink rentalAgreementSink,
+                                  @Value("${rental.pricing-mode:BIG_DECIMAL}") PricingMode pricingMode,
+                                  QuoteCache quoteCache,
+                                  ReservationIndex reservationIndex,
+                                  CheckoutMetrics checkoutMetrics,
+                                  PromotionService promotionService,
+                                  RateScheduleService rateScheduleService) {
+        this.holidayCheckerService = holidayCheckerService;
+        this.toolCatalog = toolCatalog;
+        this.rentalAgreementSink = rentalAgreementSink;
+        this.pricingMode = pricingMode;
+        this.quoteCache = quoteCache;
+        this.reservationIndex = reservationIndex;
+        this.checkoutMetrics = checkoutMetrics;
+        this.promotionService = promotionService;
+        this.rateScheduleService = rateScheduleService;
+    }
+
+    /**
+     * A service that prices with {@link BigDecimal}, discards agreements, does not cache quotes, does not track
+     * reservations, records no metrics, applies no promotions and charges every tool its catalog daily charge.
+     */
+    public RentalAgreementService(HolidayCheckerService holidayCheckerService, ToolCatalog toolCatalog) {
+        this(holidayCheckerService, toolCatalog, RentalAgreementSink.NO_OP, PricingMode.BIG_DECIMAL, null, null,
+                CheckoutMetrics.DISABLED, null, null);
+    }
+
+    /**
+     * Checks out the catalog tool with the given code.
+     *
+     * @throws IllegalArgumentException if the tool code is unknown, the rental days or discount are invalid or the
+     * tool is already booked for any of the days
+     */
+    public RentalAgreement checkout(String toolCode, int rentalDays, int discountPercent, LocalDate checkoutDate) throws IllegalArgumentException {
+        return checkout(toolCatalog.getTool(toolCode), rentalDays, discountPercent, checkoutDate);
+    }
+
+    /**
+     * Checks out the tool without a loyalty code.
+     *
+     * @throws IllegalArgumentException if the rental days or discount are invalid or the tool is already booked for
+     * any of the days
+     */
+    public RentalAgreement checkout(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate) throws IllegalArgumentException {
+        return checkout(tool, rentalDays, discountPercent, checkoutDate, null);
+    }
+
+    /**
+     * Checks out the tool under the default holiday calendar.
+     *
+     * @param loyaltyCode the customer's loyalty code, or null
+     * @throws IllegalArgumentException if the rental days or discount are invalid or the tool is already booked for
+     * any of the days
+     */
+    public RentalAgreement checkout(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate, String loyaltyCode)
+            throws IllegalArgumentException {
+        return checkout(tool, rentalDays, discountPercent, checkoutDate, loyaltyCode, null, false);
+    }
+
+    /**
+     * Checks out the request's tool, counting holidays with the calendar of the request's store (the default
+     * calendar when it names none). When reservations are tracked a tool that is already booked for any of the days
+     * is refused, but the tool is not reserved; {@link #book} does that. {@link #checkoutBatch} prices without
+     * either.
+     *
+     * @throws IllegalArgumentException if the rental days, discount or store are invalid or the tool is already
+     * booked for any of the days
+     */
+    public RentalAgreement checkout(CheckoutRequest checkoutRequest) throws IllegalArgumentException {
+        return checkout(checkoutRequest.getTool(), checkoutRequest.getRentalDays(), checkoutRequest.getDiscountPercent(),
+                checkoutRequest.getCheckoutDate(), checkoutRequest.getLoyaltyCode(), checkoutRequest.getStoreId(), false);
+    }
+
+    /**
+     * Checks out the request's tool like {@link #checkout(CheckoutRequest)} and reserves it for the rental period
+     * when reservations are tracked. The reservation is released again if the agreement cannot be priced or sent to
+     * the sink.
+     *
+     * @throws IllegalArgumentException if the rental days, discount or store are invalid or the tool is already
+     * reserved for any of the days
+     */
+    public RentalAgreement book(CheckoutRequest checkoutRequest) throws IllegalArgumentException {
+        return checkout(checkoutRequest.getTool(), checkoutRequest.getRentalDays(), checkoutRequest.getDiscountPercent(),
+                checkoutRequest.getCheckoutDate(), checkoutRequest.getLoyaltyCode(), checkoutRequest.getStoreId(), true);
+    }
 
+    /**
+     * Checks out the tool. When reservations are tracked the tool must not be booked for any of the days, and when
+     * {@code book} is set it is reserved for them.
+     * The promotions the checkout qualifies for are added to {@code discountPercent}, up to 100, and the agreement
+     * records the total.
+     */
+    private RentalAgreement checkout(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate, String loyaltyCode,
+                                     String storeId, boolean book) throws IllegalArgumentException {
+        long startNanos = checkoutMetrics.start();
+        CheckoutError validationError = validate(rentalDays, discountPercent);
+        HolidayCalendarIndex holidayCalendar = holidayCheckerService.findHolidayCalendar(storeId);
+        if (validationError == null && holidayCalendar == null) {
+            validationError = CheckoutError.UNKNOWN_STORE;
+        }
+        if (validationError != null) {
+            checkoutMetrics.recordValidationFailure(validationError);
+            throw new CheckoutValidationException(validationError);
+        }
+
+        LocalDate dueDate = checkoutDate.plusDays(rentalDays);
+        boolean reserve = book && reservationIndex != null;
+        if (reservationIndex != null && !(reserve ? reservationIndex.tryReserve(tool.getToolCode(), checkoutDate, dueDate)
+                : reservationIndex.isAvailable(tool.getToolCode(), checkoutDate, dueDate))) {
+            throw new IllegalArgumentException("Please choose different dates. Tool " + tool.getToolCode()
+                    + " is already rented out between " + checkoutDate + " and " + dueDate + ".");
+        }
+
+        RentalAgreement rentalAgreement;
+        try {
+            rentalAgreement = price(tool, rentalDays, withPromotions(tool, rentalDays, discountPercent, checkoutDate.toEpochDay(), loyaltyCode),
+                    checkoutDate, holidayCalendar);
+            rentalAgreement.setStoreId(storeId);
+            rentalAgreementSink.accept(rentalAgreement);
+        } catch (RuntimeException e) {
+            if (reserve) {
+                reservationIndex.release(tool.getToolCode(), checkoutDate, dueDate);
+            }
+            throw e;
+        }
+
+        checkoutMetrics.recordCheckout(tool.getToolType(), startNanos);
+        return rentalAgreement;
+    }
+
+    /**
+     * Extends a rental by {@code extraDays}. Only the days from the current due date to the new one are counted and
+     * added to the agreement's charge days, so the cost does not grow with the length of the rental. The charges are
+     * then recomputed from the new total at the agreement's daily charge and discount, rounding exactly as a checkout
+     * of the whole period would. The tool's charge rules come from the catalog. Promotions are not re-evaluated for
+     * the longer rental; the agreement keeps the discount it was checked out with. The given agreement is not
+     * modified. The extra days are counted with the holiday calendar of the store the agreement was checked out at.
+     * For a tool with a rate schedule only the extra days' charge is summed from the schedule and added to the
+     * agreement's pre-discount charge, so the days already agreed keep their price.
+     *
+     * @throws IllegalArgumentException if the extension days or the agreement's store are invalid, the tool is no
+     * longer in the catalog or it is already booked for any of the extra days
+     */
+    public RentalAgreement extend(RentalAgreement rentalAgreement, int extraDays) throws IllegalArgumentException {
+        return extend(rentalAgreement, extraDays, rentalAgreement.getStoreId(), false);
+    }
+
+    /**
+     * Extends a rental as if it had been checked out at {@code storeId}, counting the extra days with that store's
+     * holiday calendar, for agreements that do not record their store.
+     *
+     * @throws IllegalArgumentException if the extension days or store are invalid, the tool is no longer in the
+     * catalog or it is already booked for any of the extra days
+     */
+    public RentalAgreement extend(RentalAgreement rentalAgreement, int extraDays, String storeId) throws IllegalArgumentException {
+        return extend(rentalAgreement, extraDays, storeId, false);
+    }
+
+    /**
+     * Extends a booked rental like {@link #extend(RentalAgreement, int)} and reserves the tool for the extra days
+     * when reservations are tracked. The reservation is released again if the agreement cannot be sent to the sink.
+     *
+     * @throws IllegalArgumentException if the extension days or the agreement's store are invalid, the tool is no
+     * longer in the catalog or it is already reserved for any of the extra days
+     */
+    public RentalAgreement extendBooking(RentalAgreement rentalAgreement, int extraDays) throws IllegalArgumentException {
+        return extend(rentalAgreement, extraDays, rentalAgreement.getStoreId(), true);
+    }
+
+    private RentalAgreement extend(RentalAgreement rentalAgreement, int extraDays, String storeId, boolean book)
+            throws IllegalArgumentException {
+        CheckoutError validationError = extraDays < 1 ? CheckoutError.INVALID_EXTENSION_DAYS : null;
+        HolidayCalendarIndex holidayCalendar = holidayCheckerService.findHolidayCalendar(storeId);
+        if (validationError == null && holidayCalendar == null) {
+            validationError = CheckoutError.UNKNOWN_STORE;
+        }
+        if (validationError != null) {
+            checkoutMetrics.recordValidationFailure(validationError);
+            throw new CheckoutValidationException(validationError);
+        }
+        Tool tool = toolCatalog.getTool(rentalAgreement.getToolCode());
+        LocalDate dueDate = rentalAgreement.getDueDate();
+        LocalDate extendedDueDate = dueDate.plusDays(extraDays);
+
+        int chargeDays = rentalAgreement.getChargeDays() + countChargeDays(tool, holidayCalendar, dueDate.toEpochDay(),
+                extendedDueDate.toEpochDay());
+        RentalAgreement extendedRentalAgreement = new RentalAgreement(rentalAgreement.getToolCode(), rentalAgreement.getToolType(),
+                rentalAgreement.getToolBrand(), rentalAgreement.getRentalDays() + extraDays, rentalAgreement.getCheckoutDate(),
+                extendedDueDate, rentalAgreement.getDailyRentalCharge(), chargeDays, null, rentalAgreement.getDiscountPercent(),
+                null, null, storeId);
+        RateSchedule rateSchedule = findRateSchedule(tool);
+        if (rateSchedule == null) {
+            applyPricing(rentalAgreement.getDailyRentalCharge(), chargeDays, rentalAgreement.getDiscountPercent(), extendedRentalAgreement);
+        } else {
+            BigDecimal extraCharge = rateSchedule.preDiscountCharge(tool, holidayCalendar, dueDate.toEpochDay(), extendedDueDate.toEpochDay());
+            applyDiscount(rentalAgreement.getPreDiscountCharge().add(extraCharge), rentalAgreement.getDiscountPercent(),
+                    extendedRentalAgreement);
+        }
+
+        boolean reserve = book && reservationIndex != null;
+        if (reservationIndex != null && !(reserve ? reservationIndex.tryReserve(tool.getToolCode(), dueDate, extendedDueDate)
+                : reservationIndex.isAvailable(tool.getToolCode(), dueDate, extendedDueDate))) {
+            throw new IllegalArgumentException("Please choose fewer extension days. Tool " + tool.getToolCode()
+                    + " is already rented out between " + dueDate + " and " + extendedDueDate + ".");
+        }
+
+        try {
+            rentalAgreementSink.accept(extendedRentalAgreement);
+        } catch (RuntimeException e) {
+            if (reserve) {
+                reservationIndex.release(tool.getToolCode(), dueDate, extendedDueDate);
+            }
+            throw e;
+        }
+
+        return extendedRentalAgreement;
+    }
+
+    /**
+     * Prices every request without printing or reserving, splitting the work across the common fork-join pool.
+     * Results are returned in request order; invalid requests produce a result carrying the validation message
+     * instead of throwing, so one bad row does not abort the batch.
+     */
+    public List<CheckoutResult> checkoutBatch(List<CheckoutRequest> checkoutRequests) {
+        CheckoutResult[] results = new CheckoutResult[checkoutRequests.size()];
+        ForkJoinPool.commonPool().invoke(new CheckoutBatchTask(checkoutRequests, results, 0, results.length));
+        return Arrays.asList(results);
+    }
+
+    public List<CheckoutResult> checkoutBatch(Stream<CheckoutRequest> checkoutRequests) {
+        return checkoutBatch(checkoutRequests.collect(Collectors.toList()));
+    }
+
+    /**
+     * Prices a rental into a {@link CompactRentalAgreement} for bulk pricing and reporting, with fixed-point
+     * arithmetic whatever the configured pricing mode; the amounts, promotions included, are identical to
+     * {@code checkout}'s without a loyalty code. Quotes are not cached, nothing is reserved and the agreement is not
+     * sent to the sink.
+     *
+     * @throws IllegalArgumentException if the rental days or discount are invalid, or the dates or charges do not
+     * fit the compact form
+     */
+    public CompactRentalAgreement priceCompact(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate) throws IllegalArgumentException {
+        long startNanos = checkoutMetrics.start();
+        CheckoutError validationError = validate(rentalDays, discountPercent);
+        if (validationError != null) {
+            checkoutMetrics.recordValidationFailure(validationError);
+            throw new CheckoutValidationException(validationError);
+        }
+        long checkoutDay = checkoutDate.toEpochDay();
+        if (checkoutDay != (int) checkoutDay) {
+            throw new IllegalArgumentException("Please choose a checkout date within about five million years of 1970 for a compact agreement.");
+        }
+
+        int effectiveDiscountPercent = withPromotions(tool, rentalDays, discountPercent, checkoutDay, null);
+        HolidayCalendarIndex holidayCalendar = holidayCheckerService.findHolidayCalendar(null);
+        int chargeDays = countChargeDays(tool, holidayCalendar, checkoutDay, checkoutDay + rentalDays);
+        RateSchedule rateSchedule = findRateSchedule(tool);
+        CompactRentalAgreement compactRentalAgreement;
+        if (rateSchedule == null) {
+            compactRentalAgreement = FixedPointPricing.price(tool, (int) checkoutDay, rentalDays, chargeDays, effectiveDiscountPercent);
+        } else {
+            BigDecimal preDiscountCharge = rateSchedule.preDiscountCharge(tool, holidayCalendar, checkoutDay, checkoutDay + rentalDays);
+            compactRentalAgreement = preDiscountCharge.scale() != tool.getDailyCharge().scale() ? null
+                    : FixedPointPricing.price(tool, (int) checkoutDay, rentalDays, chargeDays, effectiveDiscountPercent,
+                    preDiscountCharge.unscaledValue().longValue());
+        }
+        if (compactRentalAgreement == null) {
+            compactRentalAgreement = CompactRentalAgreement.of(priceUncached(tool, rentalDays, effectiveDiscountPercent, checkoutDate,
+                    holidayCalendar), tool);
+        }
+        checkoutMetrics.recordCheckout(tool.getToolType(), startNanos);
+        return compactRentalAgreement;
+    }
+
+    /**
+     * Finds the cheapest checkout dates in [earliestCheckoutDate, latestCheckoutDate] for a rental of
+     * {@code rentalDays}. Consecutive candidate dates share all but two days of their rental period, so the charge
+     * days are counted once for the first candidate and then slid forward a day at a time, dropping the day that
+     * leaves the window and adding the one that enters it. Dates on which the tool is already reserved are skipped.
+     * Promotions without a loyalty code are applied to each candidate date. Nothing is reserved or sent to the
+     * agreement sink.
+     *
+     * @return up to {@code limit} priced agreements, cheapest first and earliest first among equal charges
+     * @throws IllegalArgumentException if the rental days, discount, date range or limit are invalid
+     */
+    public List<RentalAgreement> findCheapestWindows(Tool tool, int rentalDays, int discountPercent, LocalDate earliestCheckoutDate,
+                                                     LocalDate latestCheckoutDate, int limit) throws IllegalArgumentException {
+        CheckoutError validationError = validate(rentalDays, discountPercent);
+        if (validationError != null) {
+            throw new CheckoutValidationException(validationError);
+        }
+        if (latestCheckoutDate.isBefore(earliestCheckoutDate)) {
+            throw new IllegalArgumentException("Please choose a latest checkout date on or after the earliest checkout date.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Please ask for at least one checkout window.");
+        }
+
+        long firstDay = earliestCheckoutDate.toEpochDay();
+        long candidates = latestCheckoutDate.toEpochDay() - firstDay + 1;
+
+        // for a given discount the final charge depends only on the charge days, so it is computed once per distinct
+        // count until a promotion changes the discount; the heap keeps the worst of the best `limit` on top
+        BigDecimal[] finalChargeByChargeDays = new BigDecimal[rentalDays + 1];
+        int memoDiscountPercent = -1;
+        Comparator<Window> cheaperFirst = Comparator.comparing(Window::finalCharge).thenComparingLong(Window::offset);
+        PriorityQueue<Window> cheapest = new PriorityQueue<>(limit + 1, cheaperFirst.reversed());
+        RentalAgreement scratch = new RentalAgreement();
+        HolidayCalendarIndex holidayCalendar = holidayCheckerService.findHolidayCalendar(null);
+        RateSchedule rateSchedule = findRateSchedule(tool);
+        int chargeDays = calculateChargeDays(tool, holidayCalendar, earliestCheckoutDate, earliestCheckoutDate.plusDays(rentalDays));
+        for (long offset = 0; offset < candidates; offset++) {
+            long checkoutDay = firstDay + offset;
+            if (offset > 0) {
+                chargeDays += (isChargeable(tool, holidayCalendar, checkoutDay + rentalDays - 1) ? 1 : 0)
+                        - (isChargeable(tool, holidayCalendar, checkoutDay - 1) ? 1 : 0);
+            }
+            if (reservationIndex != null && !reservationIndex.isAvailable(tool.getToolCode(), LocalDate.ofEpochDay(checkoutDay),
+                    LocalDate.ofEpochDay(checkoutDay + rentalDays))) {
+                continue;
+            }
+            int effectiveDiscountPercent = withPromotions(tool, rentalDays, discountPercent, checkoutDay, null);
+            if (effectiveDiscountPercent != memoDiscountPercent) {
+                Arrays.fill(finalChargeByChargeDays, null);
+                memoDiscountPercent = effectiveDiscountPercent;
+            }
+            BigDecimal finalCharge;
+            if (rateSchedule != null) {
+                // scheduled rates vary by date, so each candidate's charge is summed from the schedule
+                applyDiscount(rateSchedule.preDiscountCharge(tool, holidayCalendar, checkoutDay, checkoutDay + rentalDays),
+                        effectiveDiscountPercent, scratch);
+                finalCharge = scratch.getFinalCharge();
+            } else {
+                if (finalChargeByChargeDays[chargeDays] == null) {
+                    applyCharges(tool.getDailyCharge(), chargeDays, effectiveDiscountPercent, scratch);
+                    finalChargeByChargeDays[chargeDays] = scratch.getFinalCharge();
+                }
+                finalCharge = finalChargeByChargeDays[chargeDays];
+            }
+            cheapest.add(new Window(offset, effectiveDiscountPercent, finalCharge));
+            if (cheapest.size() > limit) {
+                cheapest.poll();
+            }
+        }
+
+        List<RentalAgreement> rentalAgreements = new ArrayList<>(cheapest.size());
+        for (Window window : cheapest) {
+            rentalAgreements.add(price(tool, rentalDays, window.discountPercent(), LocalDate.ofEpochDay(firstDay + window.offset()),
+                    holidayCalendar));
+        }
+        rentalAgreements.sort(Comparator.comparing(RentalAgreement::getFinalCharge).thenComparing(RentalAgreement::getCheckoutDate));
+        return rentalAgreements;
+    }
+
+    public ToolCatalog getToolCatalog() {
+        return toolCatalog;
+    }
+
+    private CheckoutResult checkoutQuietly(CheckoutRequest checkoutRequest) {
+        long startNanos = checkoutMetrics.start();
+        CheckoutError validationError = validate(checkoutRequest.getRentalDays(), checkoutRequest.getDiscountPercent());
+        if (validationError == null && checkoutRequest.getTool() == null) {
+            validationError = CheckoutError.UNKNOWN_TOOL;
+        }
+        if (validationError == null && checkoutRequest.getCheckoutDate() == null) {
+            validationError = CheckoutError.MISSING_CHECKOUT_DATE;
+        }
+        HolidayCalendarIndex holidayCalendar = holidayCheckerService.findHolidayCalendar(checkoutRequest.getStoreId());
+        if (validationError == null && holidayCalendar == null) {
+            validationError = CheckoutError.UNKNOWN_STORE;
+        }
+        if (validationError != null) {
+            checkoutMetrics.recordValidationFailure(validationError);
+            return new CheckoutResult(checkoutRequest, null, validationError);
+        }
+
+        int effectiveDiscountPercent = withPromotions(checkoutRequest.getTool(), checkoutRequest.getRentalDays(),
+                checkoutRequest.getDiscountPercent(), checkoutRequest.getCheckoutDate().toEpochDay(), checkoutRequest.getLoyaltyCode());
+        RentalAgreement rentalAgreement = price(checkoutRequest.getTool(), checkoutRequest.getRentalDays(), effectiveDiscountPercent,
+                checkoutRequest.getCheckoutDate(), holidayCalendar);
+        rentalAgreement.setStoreId(checkoutRequest.getStoreId());
+        checkoutMetrics.recordCheckout(checkoutRequest.getTool().getToolType(), startNanos);
+        return new CheckoutResult(checkoutRequest, rentalAgreement, null);
+    }
+
+    /**
+     * Runs before anything is priced or allocated.
+     *
+     * @return why the input cannot be checked out, or null if it is valid
+     */
+    public static CheckoutError validate(int rentalDays, int discountPercent) {
         if (rentalDays < 1) {
-            throw new IllegalArgumentException("Please enter a valid rental day count. The rental day count must be 1 or greater.");
+            return CheckoutError.INVALID_RENTAL_DAYS;
         }
         if (discountPercent < 0 || discountPercent > 100) {
-            throw new IllegalArgumentException("Please enter a valid discount percentage. The discount percentage must be between 0% and 100%.");
+            return CheckoutError.INVALID_DISCOUNT;
         }
+        return null;
+    }
 
-        LocalDate dueDate = checkoutDate.plusDays(rentalDays);
+    private RateSchedule findRateSchedule(Tool tool) {
+        return rateScheduleService == null ? null : rateScheduleService.findRateSchedule(tool);
+    }
 
-        int chargeDays = calculateChargeDays(tool, checkoutDate, dueDate);
+    /**
+     * @return the validated {@code discountPercent} plus the promotions the checkout qualifies for, at most 100
+     */
+    private int withPromotions(Tool tool, int rentalDays, int discountPercent, long checkoutEpochDay, String loyaltyCode) {
+        if (promotionService == null) {
+            return discountPercent;
+        }
+        return Math.min(100, discountPercent + promotionService.discountPercent(tool, rentalDays, checkoutEpochDay, loyaltyCode));
+    }
 
-        BigDecimal preDiscountCharge = tool.getDailyCharge().multiply(BigDecimal.valueOf(chargeDays));
-        BigDecimal discountAmount = preDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP));
-        BigDecimal finalCharge = preDiscountCharge.subtract(discountAmount);
+    /**
+     * Quotes under the default calendar keep the allocation-free method reference; only regional ones capture their
+     * calendar in a pricer.
+     */
+    private RentalAgreement price(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate, HolidayCalendarIndex holidayCalendar) {
+        if (quoteCache == null) {
+            return priceUncached(tool, rentalDays, discountPercent, checkoutDate, holidayCalendar);
+        }
+        if (holidayCalendar == holidayCheckerService.findHolidayCalendar(null)) {
+            return quoteCache.getOrPrice(tool, rentalDays, discountPercent, checkoutDate, this::priceUncached);
+        }
+        return quoteCache.getOrPrice(tool, rentalDays, discountPercent, checkoutDate, holidayCalendar,
+                (pricedTool, pricedRentalDays, pricedDiscountPercent, pricedCheckoutDate) ->
+                        priceUncached(pricedTool, pricedRentalDays, pricedDiscountPercent, pricedCheckoutDate, holidayCalendar));
+    }
+
+    private RentalAgreement priceUncached(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate) {
+        return priceUncached(tool, rentalDays, discountPercent, checkoutDate, holidayCheckerService.findHolidayCalendar(null));
+    }
+
+    private RentalAgreement priceUncached(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate,
+                                          HolidayCalendarIndex holidayCalendar) {
+        RentalAgreement rentalAgreement = new RentalAgreement();
+
+        LocalDate dueDate = checkoutDate.plusDays(rentalDays);
+
+        long chargeDaysStartNanos = checkoutMetrics.start();
+        int chargeDays = calculateChargeDays(tool, holidayCalendar, checkoutDate, dueDate);
+        checkoutMetrics.recordChargeDays(chargeDaysStartNanos);
 
         rentalAgreement.setToolCode(tool.getToolCode());
         rentalAgreement.setToolType(tool.getToolType());
@@ -43,51 +502,117 @@ public class RentalAgreementService {
         rentalAgreement.setRentalDays(rentalDays);
         rentalAgreement.setCheckoutDate(checkoutDate);
         rentalAgreement.setDueDate(dueDate);
-        rentalAgreement.setDailyRentalCharge(dailyRentalCharge);
+        rentalAgreement.setDailyRentalCharge(tool.getDailyCharge());
         rentalAgreement.setChargeDays(chargeDays);
-        rentalAgreement.setPreDiscountCharge(preDiscountCharge);
         rentalAgreement.setDiscountPercent(discountPercent);
+
+        RateSchedule rateSchedule = findRateSchedule(tool);
+        if (rateSchedule == null) {
+            applyPricing(tool.getDailyCharge(), chargeDays, discountPercent, rentalAgreement);
+        } else {
+            applyDiscount(rateSchedule.preDiscountCharge(tool, holidayCalendar, checkoutDate.toEpochDay(), dueDate.toEpochDay()),
+                    discountPercent, rentalAgreement);
+        }
+
+        return rentalAgreement;
+    }
+
+    private void applyPricing(BigDecimal dailyCharge, int chargeDays, int discountPercent, RentalAgreement rentalAgreement) {
+        boolean fixedPointApplied = pricingMode == PricingMode.FIXED_POINT
+                && FixedPointPricing.applyCharges(dailyCharge, chargeDays, discountPercent, rentalAgreement);
+        if (!fixedPointApplied) {
+            applyCharges(dailyCharge, chargeDays, discountPercent, rentalAgreement);
+        }
+    }
+
+    static void applyCharges(BigDecimal dailyCharge, int chargeDays, int discountPercent, RentalAgreement rentalAgreement) {
+        applyDiscount(dailyCharge.multiply(BigDecimal.valueOf(chargeDays)), discountPercent, rentalAgreement);
+    }
+
+    static void applyDiscount(BigDecimal preDiscountCharge, int discountPercent, RentalAgreement rentalAgreement) {
+        BigDecimal discountAmount = preDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
+        BigDecimal finalCharge = preDiscountCharge.subtract(discountAmount);
+
+        rentalAgreement.setPreDiscountCharge(preDiscountCharge);
         rentalAgreement.setDiscountAmount(discountAmount);
         rentalAgreement.setFinalCharge(finalCharge);
+    }
 
-        printRentalAgreement(rentalAgreement);
+    /**
+     * Counts the chargeable days in [checkoutDate, dueDate) without walking the range: weekdays and weekend days
+     * are derived from the number of whole weeks plus the leftover days, then holidays that would otherwise have
+     * been charged are subtracted. As with the original day-by-day loop, the checkout date is always counted.
+     */
+    protected int calculateChargeDays(Tool tool, LocalDate checkoutDate, LocalDate dueDate) {
+        return calculateChargeDays(tool, holidayCheckerService.findHolidayCalendar(null), checkoutDate, dueDate);
+    }
 
-        return rentalAgreement;
+    private int calculateChargeDays(Tool tool, HolidayCalendarIndex holidayCalendar, LocalDate checkoutDate, LocalDate dueDate) {
+        long startDay = checkoutDate.toEpochDay();
+        return countChargeDays(tool, holidayCalendar, startDay, Math.max(dueDate.toEpochDay(), startDay + 1));
     }
 
-    protected static int calculateChargeDays(Tool tool, LocalDate checkoutDate, LocalDate dueDate) {
-        int chargeDays = 0;
+    private int countChargeDays(Tool tool, HolidayCalendarIndex holidayCalendar, long startDay, long endDay) {
+        long totalDays = endDay - startDay;
 
-        LocalDate rentalDate = checkoutDate;
-        do {
-            boolean isHoliday = !tool.isHolidayCharge() && (isIndependenceDay(rentalDate) || isLaborDay(rentalDate))
-            boolean isWeekend = rentalDate.getDayOfWeek() == DayOfWeek.SATURDAY || rentalDate.getDayOfWeek() == DayOfWeek.SUNDAY;
-            
-            if (!isHoliday && (isWeekend ? tool.isWeekendCharge() : tool.isWeekdayCharge())) {
-                chargeDays++;
+        long weekdays = (totalDays / 7) * 5;
+        long weekendDays = (totalDays / 7) * 2;
+        int firstDayOfWeek = dayOfWeekIndex(startDay);
+        for (int i = 0; i < totalDays % 7; i++) {
+            if ((firstDayOfWeek + i) % 7 >= 5) {
+                weekendDays++;
+            } else {
+                weekdays++;
             }
-        } while ((rentalDate = rentalDate.plusDays(1)).isBefore(dueDate))
-
-        return chargeDays;
-    }
-
-    private static void printRentalAgreement(RentalAgreement rentalAgreement) {
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("MM/dd/yy");
-        DecimalFormat decimalFormat = new DecimalFormat("$#,##0.00");
-
-        System.out.println("----------------------------------------------------");
-        System.out.println("Tool code: " + rentalAgreement.getToolCode());
-        System.out.println("Tool type: " + rentalAgreement.getToolType());
-        System.out.println("Brand: " + rentalAgreement.getToolBrand());
-        System.out.println("Rental Days: " + rentalAgreement.getRentalDays());
-        System.out.println("Charge Days: " + rentalAgreement.getChargeDays());
-        System.out.println("Checkout Date: " + rentalAgreement.getCheckoutDate().format(dateTimeFormatter));
-        System.out.println("Due Date: " + rentalAgreement.getDueDate().format(dateTimeFormatter));
-        System.out.println("Daily Rental Charge: " + decimalFormat.format(rentalAgreement.getDailyRentalCharge()));
-        System.out.println("Pre-Discount Charge: " + decimalFormat.format(rentalAgreement.getPreDiscountCharge()));
-        System.out.println("Discount Percent: " + rentalAgreement.getDiscountPercent() + "%");
-        System.out.println("Discount Amount: " + decimalFormat.format(rentalAgreement.getDiscountAmount()));
-        System.out.println("Final Charge: " + decimalFormat.format(rentalAgreement.getFinalCharge()));
-        System.out.println("----------------------------------------------------");
+        }
+
+        long chargeDays = (tool.isWeekdayCharge() ? weekdays : 0) + (tool.isWeekendCharge() ? weekendDays : 0);
+        if (!tool.isHolidayCharge()) {
+            chargeDays -= tool.isWeekdayCharge() ? holidayCalendar.countWeekdayHolidays(startDay, endDay) : 0;
+            chargeDays -= tool.isWeekendCharge() ? holidayCalendar.countWeekendHolidays(startDay, endDay) : 0;
+            checkoutMetrics.recordHolidayLookups((tool.isWeekdayCharge() ? 1 : 0) + (tool.isWeekendCharge() ? 1 : 0));
+        }
+
+        return (int) chargeDays;
+    }
+
+    private boolean isChargeable(Tool tool, HolidayCalendarIndex holidayCalendar, long epochDay) {
+        boolean charged = dayOfWeekIndex(epochDay) >= 5 ? tool.isWeekendCharge() : tool.isWeekdayCharge();
+        if (!charged || tool.isHolidayCharge()) {
+            return charged;
+        }
+        checkoutMetrics.recordHolidayLookups(1);
+        return !holidayCalendar.isHoliday(epochDay);
+    }
+
+    private record Window(long offset, int discountPercent, BigDecimal finalCharge) {
+    }
+
+    private class CheckoutBatchTask extends RecursiveAction {
+        private final List<CheckoutRequest> checkoutRequests;
+        private final CheckoutResult[] results;
+        private final int from;
+        private final int to;
+
+        private CheckoutBatchTask(List<CheckoutRequest> checkoutRequests, CheckoutResult[] results, int from, int to) {
+            this.checkoutRequests = checkoutRequests;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = checkoutQuietly(checkoutRequests.get(i));
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new CheckoutBatchTask(checkoutRequests, results, from, middle),
+                    new CheckoutBatchTask(checkoutRequests, results, middle, to));
+        }
     }
 }
@@ -0,0 +1,22 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+
+/**
+ * Destination for rental agreements produced by checkout. Implementations must be safe to call from many
+ * checkout threads at once.
+ */
+public interface RentalAgreementSink extends AutoCloseable {
+    RentalAgreementSink NO_OP = rentalAgreement -> {
+    };
+
+    void accept(RentalAgreement rentalAgreement);
+
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+        flush();
+    }
+}
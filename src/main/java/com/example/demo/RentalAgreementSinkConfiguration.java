@@ -0,0 +1,42 @@
+package com.example.demo;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+
+/**
+ * Chooses where checkout sends agreements via {@code rental.agreement-sink.type}: {@code none}, {@code stdout}
+ * (synchronous), {@code async} (stdout through a background writer thread) or {@code ledger} (appended to the
+ * {@link RentalLedger} in {@code rental.ledger.directory}). Rendering and writing is timed by {@link CheckoutMetrics}.
+ */
+@Configuration
+public class RentalAgreementSinkConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public RentalAgreementSink rentalAgreementSink(@Value("${rental.agreement-sink.type:async}") String sinkType,
+                                                   @Value("${rental.agreement-sink.queue-capacity:10000}") int queueCapacity,
+                                                   @Value("${rental.ledger.directory:ledger}") String ledgerDirectory,
+                                                   @Value("${rental.ledger.segment-size-bytes:" + RentalLedger.DEFAULT_SEGMENT_SIZE + "}") int ledgerSegmentSize,
+                                                   CheckoutMetrics checkoutMetrics)
+            throws IOException {
+        switch (sinkType) {
+            case "none":
+                return RentalAgreementSink.NO_OP;
+            case "stdout":
+                return checkoutMetrics.instrument(new WriterRentalAgreementSink(new OutputStreamWriter(System.out, Charset.defaultCharset()), true));
+            case "async":
+                return new AsyncRentalAgreementSink(
+                        checkoutMetrics.instrument(new WriterRentalAgreementSink(new OutputStreamWriter(System.out, Charset.defaultCharset()), false)),
+                        queueCapacity);
+            case "ledger":
+                return checkoutMetrics.instrument(RentalLedger.open(Paths.get(ledgerDirectory), ledgerSegmentSize));
+            default:
+                throw new IllegalArgumentException("Unknown rental.agreement-sink.type '" + sinkType + "'. Expected none, stdout, async or ledger.");
+        }
+    }
+}
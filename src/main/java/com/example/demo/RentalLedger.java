@@ -0,0 +1,496 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only store of rental agreements in memory-mapped segment files ({@code ledger-00000000.seg},
+ * {@code ledger-00000001.seg}, ...) inside one directory. Appending copies a compact binary record straight into
+ * the mapped segment, so the cost is a few field writes and a CRC rather than a system call; when a record does not
+ * fit the current segment the segment is forced to disk and the next one is started.
+ * <p>
+ * Each segment starts with an 8 byte header (magic, format version) followed by records laid out as
+ * <pre>
+ *   int   payload length (0 marks the end of the segment's data)
+ *   int   CRC32 of the payload
+ *   long  checkout epoch day, long due epoch day
+ *   int   rental days, int charge days, byte discount percent
+ *   str   tool code, tool type, tool brand   (short byte length, -1 for null, UTF-8 bytes)
+ *   dec   daily charge, pre-discount charge, discount amount, final charge
+ *         (short scale, byte tag: 0 = long unscaled value, n > 0 = n two's-complement bytes, -1 = null)
+ *   str   store id   (format version 2 onwards)
+ * </pre>
+ * Segments written by format version 1 are still read, with a null store id; new records always go to a segment of
+ * the current version, so opening a ledger whose last segment is older starts a new one.
+ * The length is written last, so a record only becomes visible once complete. A new segment's header is forced to
+ * disk as soon as the segment is created. Opening a ledger replays every segment, stops at the first record whose
+ * length or CRC does not check out (a write torn by a crash), clears whatever follows it in the last segment and
+ * rebuilds the index by tool code and checkout date. A last segment that is empty, shorter than its header or all
+ * zeros was left by a crash while it was being created and is started afresh.
+ * <p>
+ * Durability is up to {@link #flush()}: records written without it survive a process crash (the pages belong to
+ * the OS) but not necessarily a power loss.
+ */
+public class RentalLedger implements RentalAgreementSink {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int MAGIC = 0x524c4447;
+    private static final int FORMAT_VERSION = 2;
+    private static final int MIN_FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_STRING_BYTES = Short.MAX_VALUE;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final Map<String, NavigableMap<Long, Addresses>> index = new HashMap<>();
+    private final CRC32 crc = new CRC32();
+    private Segment current;
+    private long recordCount;
+
+    private RentalLedger(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Opens the ledger in {@code directory}, creating the directory and first segment if needed and recovering any
+     * existing segments.
+     *
+     * @param segmentSize the size of newly created segment files in bytes
+     */
+    public static RentalLedger open(Path directory, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_HEADER_SIZE + 64) {
+            throw new IllegalArgumentException("Please choose a ledger segment size of at least 80 bytes.");
+        }
+        Files.createDirectories(directory);
+        RentalLedger ledger = new RentalLedger(directory, segmentSize);
+        ledger.recover();
+        return ledger;
+    }
+
+    @Override
+    public void accept(RentalAgreement rentalAgreement) {
+        append(rentalAgreement);
+    }
+
+    /**
+     * @return the address of the record, usable with {@link #read(long)}
+     */
+    public synchronized long append(RentalAgreement rentalAgreement) {
+        byte[] toolCode = utf8(rentalAgreement.getToolCode());
+        byte[] toolType = utf8(rentalAgreement.getToolType());
+        byte[] toolBrand = utf8(rentalAgreement.getToolBrand());
+        byte[] storeId = utf8(rentalAgreement.getStoreId());
+        int length = encodedLength(rentalAgreement, toolCode, toolType, toolBrand, storeId);
+        if (HEADER_SIZE + RECORD_HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("Rental agreement for tool " + rentalAgreement.getToolCode()
+                    + " does not fit in a ledger segment of " + segmentSize + " bytes.");
+        }
+        ensureOpen();
+        if (current.position + RECORD_HEADER_SIZE + length > current.buffer.capacity()) {
+            rollOver();
+        }
+
+        MappedByteBuffer buffer = current.buffer;
+        int recordStart = current.position;
+        int payloadStart = recordStart + RECORD_HEADER_SIZE;
+        buffer.position(payloadStart);
+        writePayload(buffer, rentalAgreement, toolCode, toolType, toolBrand, storeId);
+
+        crc.reset();
+        crc.update(buffer.duplicate().position(payloadStart).limit(payloadStart + length));
+        buffer.putInt(recordStart + 4, (int) crc.getValue());
+        buffer.putInt(recordStart, length);
+
+        current.position = payloadStart + length;
+        long address = address(current.number, recordStart);
+        addToIndex(rentalAgreement.getToolCode(), rentalAgreement.getCheckoutDate().toEpochDay(), address);
+        recordCount++;
+        return address;
+    }
+
+    public synchronized RentalAgreement read(long address) {
+        Segment segment = segments.get((int) (address >>> 32));
+        return readPayload(segment.buffer, (int) address + RECORD_HEADER_SIZE, segment.formatVersion);
+    }
+
+    /**
+     * @return the agreements for the tool checked out in [from, to), ordered by checkout date and then by append
+     * order
+     */
+    public synchronized List<RentalAgreement> find(String toolCode, LocalDate from, LocalDate to) {
+        NavigableMap<Long, Addresses> byDate = index.get(toolCode);
+        List<RentalAgreement> rentalAgreements = new ArrayList<>();
+        if (byDate == null) {
+            return rentalAgreements;
+        }
+        for (Addresses addresses : byDate.subMap(from.toEpochDay(), true, to.toEpochDay(), false).values()) {
+            for (int i = 0; i < addresses.size; i++) {
+                rentalAgreements.add(read(addresses.values[i]));
+            }
+        }
+        return rentalAgreements;
+    }
+
+    /**
+     * Replays every agreement in append order.
+     */
+    public synchronized void forEach(Consumer<RentalAgreement> consumer) {
+        for (Segment segment : segments) {
+            int position = HEADER_SIZE;
+            while (position < segment.position) {
+                consumer.accept(readPayload(segment.buffer, position + RECORD_HEADER_SIZE, segment.formatVersion));
+                position += RECORD_HEADER_SIZE + segment.buffer.getInt(position);
+            }
+        }
+    }
+
+    public synchronized long size() {
+        return recordCount;
+    }
+
+    /**
+     * Forces the current segment to disk.
+     */
+    @Override
+    public synchronized void flush() {
+        if (current != null) {
+            current.buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        for (Segment segment : segments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to close ledger segment " + segment.path + ".", e);
+            }
+        }
+        current = null;
+    }
+
+    private void recover() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().matches("ledger-\\d{8}\\.seg"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            if (!paths.get(i).equals(segmentPath(i))) {
+                throw new IllegalStateException("Ledger segment " + segmentPath(i) + " is missing.");
+            }
+            boolean last = i == paths.size() - 1;
+            if (last && isBlank(paths.get(i))) {
+                // a crash while the segment was being created; it never held a record, so start it afresh
+                Files.delete(paths.get(i));
+                segments.add(mapSegment(i, true));
+                break;
+            }
+            Segment segment = mapSegment(i, false);
+            segments.add(segment);
+            replay(segment, last);
+        }
+        if (segments.isEmpty()) {
+            segments.add(mapSegment(0, true));
+        }
+        current = segments.get(segments.size() - 1);
+        if (current.formatVersion != FORMAT_VERSION) {
+            rollOver();
+        }
+    }
+
+    private void replay(Segment segment, boolean last) {
+        MappedByteBuffer buffer = segment.buffer;
+        int formatVersion = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || formatVersion < MIN_FORMAT_VERSION || formatVersion > FORMAT_VERSION) {
+            throw new IllegalStateException("Ledger segment " + segment.path + " is not a version " + MIN_FORMAT_VERSION + " to "
+                    + FORMAT_VERSION + " ledger segment.");
+        }
+        segment.formatVersion = formatVersion;
+        int position = HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            int payloadStart = position + RECORD_HEADER_SIZE;
+            crc.reset();
+            crc.update(buffer.duplicate().position(payloadStart).limit(payloadStart + length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            addToIndex(readString(buffer, payloadStart + 25), buffer.getLong(payloadStart), address(segment.number, position));
+            recordCount++;
+            position = payloadStart + length;
+        }
+        segment.position = position;
+
+        if (last) {
+            // a torn write may have left bytes past the recovered end; clear them so later appends cannot expose them
+            for (int i = position; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+            buffer.force();
+        }
+    }
+
+    private void rollOver() {
+        current.buffer.force();
+        try {
+            current = mapSegment(segments.size(), true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to create ledger segment " + segmentPath(segments.size()) + ".", e);
+        }
+        segments.add(current);
+    }
+
+    private Segment mapSegment(int number, boolean create) throws IOException {
+        Path path = segmentPath(number);
+        FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = create ? segmentSize : channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        if (create) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.force();
+        }
+        Segment segment = new Segment(number, path, channel, buffer);
+        segment.position = HEADER_SIZE;
+        return segment;
+    }
+
+    /**
+     * @return true if the segment file is shorter than its header or holds nothing but zeros
+     */
+    private static boolean isBlank(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                return true;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            for (int i = 0; i < size; i++) {
+                if (buffer.get(i) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+        private Path segmentPath(int number) {
+        return directory.resolve(String.format("ledger-%08d.seg", number));
+    }
+
+    private void ensureOpen() {
+        if (current == null) {
+            throw new IllegalStateException("The rental ledger in " + directory + " is closed.");
+        }
+    }
+
+    private void addToIndex(String toolCode, long checkoutEpochDay, long address) {
+        index.computeIfAbsent(toolCode, code -> new TreeMap<>())
+                .computeIfAbsent(checkoutEpochDay, day -> new Addresses())
+                .add(address);
+    }
+
+    private static long address(int segmentNumber, int position) {
+        return ((long) segmentNumber << 32) | position;
+    }
+
+    private static int encodedLength(RentalAgreement rentalAgreement, byte[] toolCode, byte[] toolType, byte[] toolBrand, byte[] storeId) {
+        return 8 + 8 + 4 + 4 + 1
+                + encodedLength(toolCode) + encodedLength(toolType) + encodedLength(toolBrand)
+                + encodedLength(rentalAgreement.getDailyRentalCharge())
+                + encodedLength(rentalAgreement.getPreDiscountCharge())
+                + encodedLength(rentalAgreement.getDiscountAmount())
+                + encodedLength(rentalAgreement.getFinalCharge())
+                + encodedLength(storeId);
+    }
+
+    private static void writePayload(ByteBuffer buffer, RentalAgreement rentalAgreement, byte[] toolCode, byte[] toolType, byte[] toolBrand,
+                                     byte[] storeId) {
+        buffer.putLong(rentalAgreement.getCheckoutDate().toEpochDay());
+        buffer.putLong(rentalAgreement.getDueDate().toEpochDay());
+        buffer.putInt(rentalAgreement.getRentalDays());
+        buffer.putInt(rentalAgreement.getChargeDays());
+        buffer.put((byte) rentalAgreement.getDiscountPercent());
+        putString(buffer, toolCode);
+        putString(buffer, toolType);
+        putString(buffer, toolBrand);
+        putDecimal(buffer, rentalAgreement.getDailyRentalCharge());
+        putDecimal(buffer, rentalAgreement.getPreDiscountCharge());
+        putDecimal(buffer, rentalAgreement.getDiscountAmount());
+        putDecimal(buffer, rentalAgreement.getFinalCharge());
+        putString(buffer, storeId);
+    }
+
+    private static RentalAgreement readPayload(ByteBuffer buffer, int position, int formatVersion) {
+        ByteBuffer view = buffer.duplicate().position(position);
+        RentalAgreement rentalAgreement = new RentalAgreement();
+        rentalAgreement.setCheckoutDate(LocalDate.ofEpochDay(view.getLong()));
+        rentalAgreement.setDueDate(LocalDate.ofEpochDay(view.getLong()));
+        rentalAgreement.setRentalDays(view.getInt());
+        rentalAgreement.setChargeDays(view.getInt());
+        rentalAgreement.setDiscountPercent(view.get());
+        rentalAgreement.setToolCode(getString(view));
+        rentalAgreement.setToolType(getString(view));
+        rentalAgreement.setToolBrand(getString(view));
+        rentalAgreement.setDailyRentalCharge(getDecimal(view));
+        rentalAgreement.setPreDiscountCharge(getDecimal(view));
+        rentalAgreement.setDiscountAmount(getDecimal(view));
+        rentalAgreement.setFinalCharge(getDecimal(view));
+        if (formatVersion >= 2) {
+            rentalAgreement.setStoreId(getString(view));
+        }
+        return rentalAgreement;
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Ledger strings are limited to " + MAX_STRING_BYTES + " bytes.");
+        }
+        return bytes;
+    }
+
+    private static int encodedLength(byte[] value) {
+        return value == null ? 2 : 2 + value.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer buffer, int position) {
+        return getString(buffer.duplicate().position(position));
+    }
+
+    private static int encodedLength(BigDecimal value) {
+        if (value == null) {
+            return 3;
+        }
+        checkScale(value);
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            return 3 + 8;
+        }
+        int byteLength = unscaled.bitLength() / 8 + 1;
+        if (byteLength > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Ledger amounts are limited to " + Byte.MAX_VALUE + " bytes.");
+        }
+        return 3 + byteLength;
+    }
+
+    private static void checkScale(BigDecimal value) {
+        if (value.scale() < Short.MIN_VALUE || value.scale() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Ledger amounts must have a scale between " + Short.MIN_VALUE + " and " + Short.MAX_VALUE + ".");
+        }
+    }
+
+    private static void putDecimal(ByteBuffer buffer, BigDecimal value) {
+        if (value == null) {
+            buffer.putShort((short) 0).put((byte) -1);
+            return;
+        }
+        buffer.putShort((short) value.scale());
+        BigInteger unscaled = value.unscaledValue();
+        if (unscaled.bitLength() < 64) {
+            buffer.put((byte) 0).putLong(unscaled.longValue());
+            return;
+        }
+        byte[] bytes = unscaled.toByteArray();
+        buffer.put((byte) bytes.length).put(bytes);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer buffer) {
+        int scale = buffer.getShort();
+        byte tag = buffer.get();
+        if (tag < 0) {
+            return null;
+        }
+        if (tag == 0) {
+            return BigDecimal.valueOf(buffer.getLong(), scale);
+        }
+        byte[] bytes = new byte[tag];
+        buffer.get(bytes);
+        return new BigDecimal(new BigInteger(bytes), scale);
+    }
+
+    private static final class Segment {
+        private final int number;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int formatVersion = FORMAT_VERSION;
+        private int position;
+
+        private Segment(int number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Addresses {
+        private long[] values = new long[1];
+        private int size;
+
+        private void add(long address) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = address;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo;
+
+import com.example.demo.model.Tool;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks which days each tool is rented out so checkout can refuse to hand out a tool twice. A reservation covers
+ * [from, to) in epoch days, matching the charge period of a rental.
+ * <p>
+ * Reservations of one tool never overlap, so they are kept as a sorted map of disjoint intervals keyed by start
+ * day: the only reservation that can overlap [from, to) is the last one starting before {@code to}, which makes
+ * both the overlap check and the insert O(log n). Each tool has its own lock, so checkouts of different tools
+ * never contend, and the check and insert for one tool happen atomically under that lock.
+ * <p>
+ * When {@code rental.reservations.release-interval-hours} is positive (24 by default) reservations that have ended
+ * are dropped on that schedule, so the index only holds current and future rentals.
+ */
+@Service
+public class ReservationIndex {
+    private final ToolCatalog toolCatalog;
+    private final Map<String, ToolReservations> reservations = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService releaser;
+
+    @Autowired
+    public ReservationIndex(ToolCatalog toolCatalog,
+                            @Value("${rental.reservations.release-interval-hours:24}") long releaseIntervalHours) {
+        this.toolCatalog = toolCatalog;
+
+        if (releaseIntervalHours > 0) {
+            releaser = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reservation-releaser");
+                thread.setDaemon(true);
+                return thread;
+            });
+            releaser.scheduleWithFixedDelay(() -> releaseEndedBy(LocalDate.now()), releaseIntervalHours, releaseIntervalHours, TimeUnit.HOURS);
+        } else {
+            releaser = null;
+        }
+    }
+
+    /**
+     * An index that keeps every reservation until it is released, for use outside of Spring.
+     */
+    public ReservationIndex(ToolCatalog toolCatalog) {
+        this(toolCatalog, 0);
+    }
+
+    /**
+     * Reserves the tool for [from, to) unless any of those days is already reserved.
+     *
+     * @return true if the reservation was made, false if it overlaps an existing one
+     */
+    public boolean tryReserve(String toolCode, LocalDate from, LocalDate to) throws IllegalArgumentException {
+        long fromDay = from.toEpochDay();
+        long toDay = toEpochDay(from, to);
+        ToolReservations toolReservations = reservations.computeIfAbsent(toolCode, code -> new ToolReservations());
+        synchronized (toolReservations) {
+            if (toolReservations.overlaps(fromDay, toDay)) {
+                return false;
+            }
+            toolReservations.intervals.put(fromDay, toDay);
+            return true;
+        }
+    }
+
+    /**
+     * Removes the reservation made for exactly [from, to).
+     *
+     * @return true if there was such a reservation
+     */
+    public boolean release(String toolCode, LocalDate from, LocalDate to) {
+        ToolReservations toolReservations = reservations.get(toolCode);
+        if (toolReservations == null) {
+            return false;
+        }
+        synchronized (toolReservations) {
+            return toolReservations.intervals.remove(from.toEpochDay(), to.toEpochDay());
+        }
+    }
+
+    /**
+     * Drops every reservation that ended on or before the given day; past rentals no longer block anything.
+     */
+    public void releaseEndedBy(LocalDate date) {
+        long day = date.toEpochDay();
+        for (ToolReservations toolReservations : reservations.values()) {
+            synchronized (toolReservations) {
+                toolReservations.intervals.values().removeIf(toDay -> toDay <= day);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (releaser != null) {
+            releaser.shutdownNow();
+        }
+    }
+
+    public boolean isAvailable(String toolCode, LocalDate from, LocalDate to) throws IllegalArgumentException {
+        long toDay = toEpochDay(from, to);
+        ToolReservations toolReservations = reservations.get(toolCode);
+        if (toolReservations == null) {
+            return true;
+        }
+        synchronized (toolReservations) {
+            return !toolReservations.overlaps(from.toEpochDay(), toDay);
+        }
+    }
+
+    /**
+     * @return the catalog tools with no reservation in [from, to), in catalog order
+     */
+    public List<Tool> findAvailableTools(LocalDate from, LocalDate to) throws IllegalArgumentException {
+        long fromDay = from.toEpochDay();
+        long toDay = toEpochDay(from, to);
+        List<Tool> availableTools = new ArrayList<>();
+        for (Tool tool : toolCatalog.getTools()) {
+            ToolReservations toolReservations = reservations.get(tool.getToolCode());
+            boolean available;
+            if (toolReservations == null) {
+                available = true;
+            } else {
+                synchronized (toolReservations) {
+                    available = !toolReservations.overlaps(fromDay, toDay);
+                }
+            }
+            if (available) {
+                availableTools.add(tool);
+            }
+        }
+        return availableTools;
+    }
+
+    private static long toEpochDay(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Please choose a reservation end date after its start date.");
+        }
+        return to.toEpochDay();
+    }
+
+    private static final class ToolReservations {
+        private final TreeMap<Long, Long> intervals = new TreeMap<>();
+
+        private boolean overlaps(long fromDay, long toDay) {
+            Map.Entry<Long, Long> lastStartingBefore = intervals.lowerEntry(toDay);
+            return lastStartingBefore != null && lastStartingBefore.getValue() > fromDay;
+        }
+    }
+}
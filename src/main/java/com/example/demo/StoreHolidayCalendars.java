@@ -0,0 +1,42 @@
+package com.example.demo;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The holiday calendar of every store, built by {@link HolidayRuleCompiler#compileStoreCalendars}. Stores whose
+ * regions observe the same holidays share one {@link HolidayCalendarIndex} instance, so the number of calendars in
+ * memory grows with the number of distinct rule sets rather than with the number of stores. Immutable once built;
+ * finding a store's calendar is a single hash lookup.
+ */
+public class StoreHolidayCalendars {
+    private final HolidayCalendarIndex defaultCalendar;
+    private final Map<String, HolidayCalendarIndex> calendarByStore;
+    private final Collection<HolidayCalendarIndex> distinctCalendars;
+
+    StoreHolidayCalendars(HolidayCalendarIndex defaultCalendar, Map<String, HolidayCalendarIndex> calendarByStore,
+                          Collection<HolidayCalendarIndex> distinctCalendars) {
+        this.defaultCalendar = defaultCalendar;
+        this.calendarByStore = calendarByStore;
+        this.distinctCalendars = distinctCalendars;
+    }
+
+    public HolidayCalendarIndex getDefaultCalendar() {
+        return defaultCalendar;
+    }
+
+    /**
+     * @param storeId the store, or null for the default calendar
+     * @return the store's calendar, or null if the store has none configured
+     */
+    public HolidayCalendarIndex findCalendar(String storeId) {
+        return storeId == null ? defaultCalendar : calendarByStore.get(storeId);
+    }
+
+    /**
+     * @return every calendar once, the default calendar included
+     */
+    public Collection<HolidayCalendarIndex> getDistinctCalendars() {
+        return distinctCalendars;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.demo;
+
+import com.example.demo.model.Tool;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rentable tools, loaded from a CSV file ({@code rental.tool-catalog.location}, {@code classpath:tools.csv} by
+ * default) into an immutable open-addressing table keyed by tool code. Lookups return the shared {@link Tool}
+ * instance and do not allocate.
+ * <p>
+ * When the location is a file and {@code rental.tool-catalog.reload-interval-seconds} is positive the file is
+ * polled for changes. A reload builds a complete new table and publishes it with a single volatile write, so
+ * readers never lock and always see either the old or the new catalog.
+ */
+@Service
+public class ToolCatalog {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ToolCatalog.class);
+    private static final String CSV_HEADER_PREFIX = "toolCode,";
+
+    private final Resource location;
+    private final ScheduledExecutorService reloader;
+    private volatile ToolIndex toolIndex;
+    private volatile long version;
+    private long lastModified;
+
+    @Autowired
+    public ToolCatalog(@Value("${rental.tool-catalog.location:classpath:tools.csv}") Resource location,
+                       @Value("${rental.tool-catalog.reload-interval-seconds:0}") long reloadIntervalSeconds) throws IOException {
+        this.location = location;
+        reload();
+
+        if (reloadIntervalSeconds > 0 && location.isFile()) {
+            reloader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "tool-catalog-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloader.scheduleWithFixedDelay(this::reloadIfModified, reloadIntervalSeconds, reloadIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            reloader = null;
+        }
+    }
+
+    /**
+     * A fixed catalog of the given tools, for use outside of Spring.
+     */
+    public ToolCatalog(Collection<Tool> tools) {
+        this.location = null;
+        this.reloader = null;
+        this.toolIndex = ToolIndex.of(tools);
+    }
+
+    /**
+     * @throws IllegalArgumentException if no tool has the given code
+     */
+    public Tool getTool(String toolCode) throws IllegalArgumentException {
+        Tool tool = findTool(toolCode);
+        if (tool == null) {
+            throw new IllegalArgumentException("Please enter a valid tool code. No tool with code '" + toolCode + "' is available.");
+        }
+        return tool;
+    }
+
+    /**
+     * @return the tool with the given code, or null if there is none
+     */
+    public Tool findTool(String toolCode) {
+        return toolCode == null ? null : toolIndex.get(toolCode);
+    }
+
+    public List<Tool> getTools() {
+        return toolIndex.tools;
+    }
+
+    /**
+     * Incremented every time the catalog is reloaded, so caches derived from it can tell when they are stale.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Re-reads the catalog file and atomically replaces the current tools. If the file cannot be read or parsed
+     * the current catalog stays in place.
+     */
+    public synchronized void reload() throws IOException {
+        if (location == null) {
+            return;
+        }
+        long modified = location.isFile() ? location.lastModified() : 0;
+        toolIndex = ToolIndex.of(readTools(location));
+        lastModified = modified;
+        version++;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    private synchronized void reloadIfModified() {
+        try {
+            if (location.lastModified() != lastModified) {
+                reload();
+            }
+        } catch (IOException | RuntimeException e) {
+            // keep serving the last good catalog; the next poll will try again
+            LOGGER.warn("Could not reload the tool catalog from {}; keeping the current catalog", location, e);
+        }
+    }
+
+    /**
+     * A fixed catalog read from tool catalog CSV, for use outside of Spring. The stream is closed.
+     */
+    public static ToolCatalog read(InputStream inputStream) throws IOException {
+        return new ToolCatalog(readTools(inputStream));
+    }
+
+    static List<Tool> readTools(Resource resource) throws IOException {
+        return readTools(resource.getInputStream());
+    }
+
+    private static List<Tool> readTools(InputStream inputStream) throws IOException {
+        List<Tool> tools = new ArrayList<>();
+        Map<String, String> sharedStrings = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#") || line.startsWith(CSV_HEADER_PREFIX)) {
+                    continue;
+                }
+
+                String[] fields = line.split(",", -1);
+                if (fields.length != 7) {
+                    throw new IllegalArgumentException("Invalid tool catalog line " + lineNumber + ": expected 7 fields but found " + fields.length + ".");
+                }
+                tools.add(new Tool(
+                        fields[0].trim(),
+                        sharedStrings.computeIfAbsent(fields[1].trim(), value -> value),
+                        sharedStrings.computeIfAbsent(fields[2].trim(), value -> value),
+                        new BigDecimal(fields[3].trim()),
+                        parseFlag(fields[4], "weekdayCharge", lineNumber),
+                        parseFlag(fields[5], "weekendCharge", lineNumber),
+                        parseFlag(fields[6], "holidayCharge", lineNumber)));
+            }
+        }
+
+        return tools;
+    }
+
+    /**
+     * Accepts only {@code true} or {@code false} in any case, so a typo cannot silently turn a charge off.
+     */
+    private static boolean parseFlag(String field, String name, int lineNumber) {
+        String value = field.trim();
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid tool catalog line " + lineNumber + ": " + name
+                + " must be true or false but was '" + value + "'.");
+    }
+
+    /**
+     * Open-addressing table sized to at least twice the number of tools, probed linearly from the code's
+     * (cached) {@link String#hashCode()}.
+     */
+    private static final class ToolIndex {
+        private final String[] codes;
+        private final Tool[] slots;
+        private final int mask;
+        private final List<Tool> tools;
+
+        private ToolIndex(String[] codes, Tool[] slots, List<Tool> tools) {
+            this.codes = codes;
+            this.slots = slots;
+            this.mask = codes.length - 1;
+            this.tools = tools;
+        }
+
+        static ToolIndex of(Collection<Tool> tools) {
+            int capacity = Integer.highestOneBit(Math.max(tools.size(), 1) * 2 - 1) << 1;
+            String[] codes = new String[capacity];
+            Tool[] slots = new Tool[capacity];
+            int mask = capacity - 1;
+
+            for (Tool tool : tools) {
+                int slot = spread(tool.getToolCode().hashCode()) & mask;
+                while (codes[slot] != null) {
+                    if (codes[slot].equals(tool.getToolCode())) {
+                        throw new IllegalArgumentException("Duplicate tool code '" + tool.getToolCode() + "' in tool catalog.");
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                codes[slot] = tool.getToolCode();
+                slots[slot] = tool;
+            }
+
+            return new ToolIndex(codes, slots, Collections.unmodifiableList(new ArrayList<>(tools)));
+        }
+
+        Tool get(String toolCode) {
+            int slot = spread(toolCode.hashCode()) & mask;
+            String code;
+            while ((code = codes[slot]) != null) {
+                if (code.equals(toolCode)) {
+                    return slots[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes the rendered text of each agreement to a buffered {@link Writer}. Rendering happens outside the lock so
+ * concurrent callers only serialize on the buffer append.
+ */
+public class WriterRentalAgreementSink implements RentalAgreementSink {
+    private final BufferedWriter writer;
+    private final boolean autoFlush;
+
+    /**
+     * @param autoFlush flush after every agreement; leave off when a caller such as
+     *                  {@link AsyncRentalAgreementSink} flushes in batches
+     */
+    public WriterRentalAgreementSink(Writer writer, boolean autoFlush) {
+        this.writer = new BufferedWriter(writer, 64 * 1024);
+        this.autoFlush = autoFlush;
+    }
+
+    @Override
+    public void accept(RentalAgreement rentalAgreement) {
+        String renderedAgreement = RentalAgreementRenderer.render(rentalAgreement);
+        try {
+            synchronized (writer) {
+                writer.write(renderedAgreement);
+                if (autoFlush) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write rental agreement.", e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            synchronized (writer) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to flush rental agreements.", e);
+        }
+    }
+}
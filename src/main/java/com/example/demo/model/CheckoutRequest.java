@@ -0,0 +1,25 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class CheckoutRequest {
+    private Tool tool;
+    private int rentalDays;
+    private int discountPercent;
+    private LocalDate checkoutDate;
+    private String loyaltyCode;
+    private String storeId;
+
+    public CheckoutRequest(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate) {
+        this(tool, rentalDays, discountPercent, checkoutDate, null, null);
+    }
+}
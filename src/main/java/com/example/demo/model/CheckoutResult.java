@@ -0,0 +1,28 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Outcome of one item in a batch checkout: either the priced agreement or the validation error that
+ * {@code checkout} would have thrown for it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class CheckoutResult {
+    private CheckoutRequest request;
+    private RentalAgreement rentalAgreement;
+    private CheckoutError error;
+
+    public boolean isValid() {
+        return error == null;
+    }
+
+    public String getErrorMessage() {
+        return error == null ? null : error.getMessage();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Immutable, compact form of a {@link RentalAgreement} for holding large numbers of agreements in memory. The tool
+ * is referenced rather than copied, the checkout date is stored as an epoch day and the charges as longs in the
+ * minor units of the tool's daily charge (cents for a charge such as 1.99). The due date and final charge are not
+ * stored at all; they, and the {@link LocalDate} and {@link BigDecimal} views of the stored values, are computed
+ * when asked for.
+ */
+public record CompactRentalAgreement(Tool tool, int checkoutEpochDay, int rentalDays, int chargeDays, int discountPercent,
+                                     long preDiscountChargeUnscaled, long discountAmountUnscaled) {
+
+    public CompactRentalAgreement {
+        if (tool == null) {
+            throw new IllegalArgumentException("Please provide the tool of a rental agreement.");
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code tool} is not the agreement's tool, or a date or charge does not fit
+     * the compact form
+     */
+    public static CompactRentalAgreement of(RentalAgreement rentalAgreement, Tool tool) throws IllegalArgumentException {
+        if (!tool.getToolCode().equals(rentalAgreement.getToolCode())) {
+            throw new IllegalArgumentException("Please provide tool " + rentalAgreement.getToolCode() + " for this rental agreement.");
+        }
+        int scale = tool.getDailyCharge().scale();
+        try {
+            return new CompactRentalAgreement(tool, Math.toIntExact(rentalAgreement.getCheckoutDate().toEpochDay()),
+                    rentalAgreement.getRentalDays(), rentalAgreement.getChargeDays(), rentalAgreement.getDiscountPercent(),
+                    rentalAgreement.getPreDiscountCharge().setScale(scale).unscaledValue().longValueExact(),
+                    rentalAgreement.getDiscountAmount().setScale(scale).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Please use the full rental agreement for " + rentalAgreement.getToolCode()
+                    + ". Its dates or charges do not fit the compact form.", e);
+        }
+    }
+
+    public String toolCode() {
+        return tool.getToolCode();
+    }
+
+    public String toolType() {
+        return tool.getToolType();
+    }
+
+    public String toolBrand() {
+        return tool.getBrand();
+    }
+
+    public LocalDate checkoutDate() {
+        return LocalDate.ofEpochDay(checkoutEpochDay);
+    }
+
+    public LocalDate dueDate() {
+        return LocalDate.ofEpochDay((long) checkoutEpochDay + rentalDays);
+    }
+
+    public BigDecimal dailyRentalCharge() {
+        return tool.getDailyCharge();
+    }
+
+    public long finalChargeUnscaled() {
+        return preDiscountChargeUnscaled - discountAmountUnscaled;
+    }
+
+    public BigDecimal preDiscountCharge() {
+        return BigDecimal.valueOf(preDiscountChargeUnscaled, tool.getDailyCharge().scale());
+    }
+
+    public BigDecimal discountAmount() {
+        return BigDecimal.valueOf(discountAmountUnscaled, tool.getDailyCharge().scale());
+    }
+
+    public BigDecimal finalCharge() {
+        return BigDecimal.valueOf(finalChargeUnscaled(), tool.getDailyCharge().scale());
+    }
+
+    public RentalAgreement toRentalAgreement() {
+        return new RentalAgreement(toolCode(), toolType(), toolBrand(), rentalDays, checkoutDate(), dueDate(),
+                dailyRentalCharge(), chargeDays, preDiscountCharge(), discountPercent, discountAmount(), finalCharge());
+    }
+}
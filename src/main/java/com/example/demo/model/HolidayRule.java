@@ -0,0 +1,22 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.DayOfWeek;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class HolidayRule {
+    private String name;
+    private HolidayRuleType type;
+    private int month;
+    private int dayOfMonth;
+    private DayOfWeek dayOfWeek;
+    private int ordinal;
+    private boolean observedOnNearestWeekday;
+}
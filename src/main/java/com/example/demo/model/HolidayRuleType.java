@@ -0,0 +1,16 @@
+package com.example.demo.model;
+
+public enum HolidayRuleType {
+    /**
+     * A fixed month and day, e.g. July 4th. Optionally observed on the nearest weekday when it falls on a weekend.
+     */
+    FIXED_DATE,
+    /**
+     * The nth occurrence of a day of week in a month, e.g. the first Monday in September.
+     */
+    NTH_WEEKDAY,
+    /**
+     * The last occurrence of a day of week in a month, e.g. the last Monday in May.
+     */
+    LAST_WEEKDAY
+}
@@ -0,0 +1,33 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * A percentage off every checkout that meets all of the promotion's conditions. Unset conditions always hold: a
+ * null tool type applies to every tool, a null loyalty code needs no code, 0 rental days leaves that end of the
+ * rental length open and a null date leaves that end of the campaign open. The dates are inclusive checkout dates.
+ * Every matching promotion is added to the discount, so long-rental tiers are written as promotions with disjoint
+ * rental day ranges.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class Promotion {
+    private String name;
+    private int percent;
+    private String toolType;
+    private String loyaltyCode;
+    private int minRentalDays;
+    private int maxRentalDays;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+}
@@ -0,0 +1,13 @@
+package com.example.demo.model;
+
+import lombok.Value;
+
+/**
+ * What a {@link com.example.demo.QuoteFilePipeline} run priced: every input row other than blank lines, comments
+ * and the header, and how many of those were rejected.
+ */
+@Value
+public class QuoteFileSummary {
+    long rows;
+    long rejectedRows;
+}
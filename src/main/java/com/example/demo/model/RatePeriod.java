@@ -0,0 +1,31 @@
+package com.example.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A daily charge for one tool between two inclusive dates, replacing the tool's catalog charge on those days. A
+ * {@code weekendDailyCharge}, when set, is charged on Saturdays and Sundays instead of {@code dailyCharge}. Where
+ * periods for the same tool overlap, the one listed later wins, so a peak weekend is written after the season it
+ * falls in. Whether a day is charged at all still follows the tool's weekday, weekend and holiday rules.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class RatePeriod {
+    private String name;
+    private String toolCode;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+    private BigDecimal dailyCharge;
+    private BigDecimal weekendDailyCharge;
+}
@@ -26,4 +26,12 @@ public class RentalAgreement {
     private int discountPercent;
     private BigDecimal discountAmount;
     private BigDecimal finalCharge;
+    private String storeId;
+
+    public RentalAgreement(String toolCode, String toolType, String toolBrand, int rentalDays, LocalDate checkoutDate, LocalDate dueDate,
+                           BigDecimal dailyRentalCharge, int chargeDays, BigDecimal preDiscountCharge, int discountPercent,
+                           BigDecimal discountAmount, BigDecimal finalCharge) {
+        this(toolCode, toolType, toolBrand, rentalDays, checkoutDate, dueDate, dailyRentalCharge, chargeDays, preDiscountCharge,
+                discountPercent, discountAmount, finalCharge, null);
+    }
 }
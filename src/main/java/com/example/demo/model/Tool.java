@@ -2,21 +2,19 @@ package com.example.demo.model;
 
 import java.math.BigDecimal;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import lombok.ToString;
+import lombok.Value;
 
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@ToString
+/**
+ * Immutable so a single instance per tool code can be shared by every checkout; see
+ * {@link com.example.demo.ToolCatalog}.
+ */
+@Value
 public class Tool {
-    private String toolCode;
-    private String toolType;
-    private String brand;
-    private BigDecimal dailyCharge;
-    private boolean weekdayCharge;
-    private boolean weekendCharge;
-    private boolean holidayCharge;
+    String toolCode;
+    String toolType;
+    String brand;
+    BigDecimal dailyCharge;
+    boolean weekdayCharge;
+    boolean weekendCharge;
+    boolean holidayCharge;
 }
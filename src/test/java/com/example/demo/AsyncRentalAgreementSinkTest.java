@@ -0,0 +1,115 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsyncRentalAgreementSinkTest {
+
+    private static RentalAgreement rentalAgreement(int rentalDays) {
+        return new RentalAgreement("LADW", "Ladder", "Werner", rentalDays, LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 2).plusDays(rentalDays),
+                new BigDecimal("1.99"), 2, new BigDecimal("3.98"), 10, new BigDecimal("0.40"), new BigDecimal("3.58"));
+    }
+
+    @Test
+    public void close_AfterAccepting_WritesEveryAgreementInOrder() {
+        //given
+        StringWriter output = new StringWriter();
+        AsyncRentalAgreementSink sink = new AsyncRentalAgreementSink(new WriterRentalAgreementSink(output, false), 1000);
+
+        //when
+        StringBuilder expectedOutput = new StringBuilder();
+        for (int rentalDays = 1; rentalDays <= 100; rentalDays++) {
+            sink.accept(rentalAgreement(rentalDays));
+            expectedOutput.append(RentalAgreementRenderer.render(rentalAgreement(rentalDays)));
+        }
+        sink.close();
+
+        //then
+        assertEquals(expectedOutput.toString(), output.toString());
+        assertEquals(0, sink.getDroppedAgreements());
+    }
+
+    @Test
+    public void accept_QueueFull_DropsInsteadOfBlocking() throws InterruptedException {
+        //given
+        CountDownLatch release = new CountDownLatch(1);
+        RentalAgreementSink blockedSink = agreement -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AsyncRentalAgreementSink sink = new AsyncRentalAgreementSink(blockedSink, 1);
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            sink.accept(rentalAgreement(1));
+        }
+        release.countDown();
+        sink.close();
+
+        //then
+        assertTrue(sink.getDroppedAgreements() > 0);
+    }
+
+    @Test
+    public void close_DelegateFails_CountsUnwrittenAgreementsAsDropped() {
+        //given
+        List<RentalAgreement> written = new ArrayList<>();
+        RentalAgreementSink failingSink = agreement -> {
+            if (agreement.getRentalDays() == 2) {
+                throw new IllegalStateException("disk full");
+            }
+            written.add(agreement);
+        };
+        AsyncRentalAgreementSink sink = new AsyncRentalAgreementSink(failingSink, 100);
+
+        //when
+        for (int rentalDays = 1; rentalDays <= 5; rentalDays++) {
+            sink.accept(rentalAgreement(rentalDays));
+        }
+        sink.close();
+
+        //then
+        assertTrue(sink.getDroppedAgreements() >= 1);
+        assertEquals(5, written.size() + sink.getDroppedAgreements());
+        assertTrue(written.stream().noneMatch(agreement -> agreement.getRentalDays() == 2));
+    }
+
+    @Test
+    public void render_RentalAgreement_MatchesPrintedFormat() {
+        //given
+        String newLine = System.lineSeparator();
+        String expected = "----------------------------------------------------" + newLine
+                + "Tool code: LADW" + newLine
+                + "Tool type: Ladder" + newLine
+                + "Brand: Werner" + newLine
+                + "Rental Days: 3" + newLine
+                + "Charge Days: 2" + newLine
+                + "Checkout Date: 07/02/20" + newLine
+                + "Due Date: 07/05/20" + newLine
+                + "Daily Rental Charge: $1.99" + newLine
+                + "Pre-Discount Charge: $3.98" + newLine
+                + "Discount Percent: 10%" + newLine
+                + "Discount Amount: $0.40" + newLine
+                + "Final Charge: $3.58" + newLine
+                + "----------------------------------------------------" + newLine;
+
+        //when
+        String actual = RentalAgreementRenderer.render(rentalAgreement(3));
+
+        //then
+        assertEquals(expected, actual);
+    }
+}
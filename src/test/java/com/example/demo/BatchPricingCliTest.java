@@ -0,0 +1,119 @@
+package com.example.demo;
+
+import com.example.demo.model.Promotion;
+import com.example.demo.model.RatePeriod;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchPricingCliTest {
+
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+    @Test
+    public void run_QuoteFile_PricesWithoutSpring() throws IOException {
+        //given
+        Path input = Files.createTempFile("quotes", ".csv");
+        Path output = Files.createTempFile("agreements", ".csv");
+        Files.writeString(input, "LADW,2020-07-02,3,10\nJAKR,2015-09-03,0,10\n", StandardCharsets.UTF_8);
+
+        //when
+        int actualExitCode;
+        List<String> actualLines;
+        try {
+            actualExitCode = BatchPricingCli.run(new String[]{"--parallelism", "2", input.toString(), output.toString()}, logStream());
+            actualLines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+
+        //then
+        assertEquals(0, actualExitCode);
+        assertEquals(3, actualLines.size());
+        assertTrue(actualLines.get(1).startsWith("LADW,Ladder,Werner,3,2020-07-02,2020-07-05,1.99,2,3.98,10,0.40,3.58,"));
+        assertTrue(actualLines.get(2).endsWith("INVALID_RENTAL_DAYS"));
+        assertTrue(log.toString(StandardCharsets.UTF_8).startsWith("Priced 2 rows (1 rejected) in "));
+    }
+
+    @Test
+    public void run_ConfigWithPromotionsAndRatePeriods_PricesLikeTheApplication() throws IOException {
+        //given
+        Tool ladder = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+        Path config = Files.createTempFile("rental", ".properties");
+        Path input = Files.createTempFile("quotes", ".csv");
+        Path output = Files.createTempFile("agreements", ".csv");
+        Files.writeString(config, "rental.promotions[0].name=Ladder week\n"
+                + "rental.promotions[0].percent=15\n"
+                + "rental.promotions[0].tool-type=Ladder\n"
+                + "rental.promotions[0].start-date=2020-06-01\n"
+                + "rental.promotions[0].end-date=2020-08-31\n"
+                + "rental.rate-periods[0].name=Summer\n"
+                + "rental.rate-periods[0].tool-code=LADW\n"
+                + "rental.rate-periods[0].start-date=2020-06-01\n"
+                + "rental.rate-periods[0].end-date=2020-08-31\n"
+                + "rental.rate-periods[0].daily-charge=2.49\n", StandardCharsets.UTF_8);
+        Files.writeString(input, "LADW,2020-07-02,3,10\n", StandardCharsets.UTF_8);
+        RentalAgreementService configuredService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(ladder)),
+                RentalAgreementSink.NO_OP, PricingMode.BIG_DECIMAL, null, null, CheckoutMetrics.DISABLED,
+                new PromotionService(List.of(new Promotion("Ladder week", 15, "Ladder", null, 0, 0, LocalDate.of(2020, 6, 1),
+                        LocalDate.of(2020, 8, 31)))),
+                new RateScheduleService(List.of(new RatePeriod("Summer", "LADW", LocalDate.of(2020, 6, 1), LocalDate.of(2020, 8, 31),
+                        new BigDecimal("2.49"), null))));
+        String expectedRow = RentalAgreementRenderer.appendCsv(configuredService.checkout(ladder, 3, 10, LocalDate.of(2020, 7, 2)),
+                new StringBuilder()).toString();
+
+        //when
+        int actualExitCode;
+        List<String> actualLines;
+        try {
+            actualExitCode = BatchPricingCli.run(new String[]{"--config", config.toString(), input.toString(), output.toString()}, logStream());
+            actualLines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(config);
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+
+        //then
+        assertEquals(0, actualExitCode);
+        assertEquals(expectedRow.substring(0, expectedRow.length() - 1) + ",", actualLines.get(1));
+        assertTrue(actualLines.get(1).contains(",25,"));
+    }
+
+    @Test
+    public void run_Train_PricesGeneratedRows() {
+        //when
+        int actualExitCode = BatchPricingCli.run(new String[]{"--train"}, logStream());
+
+        //then
+        assertEquals(0, actualExitCode);
+        assertTrue(log.toString(StandardCharsets.UTF_8).startsWith("Priced 5000 rows ("));
+    }
+
+    @Test
+    public void run_MissingOutputFile_PrintsUsage() {
+        //when
+        int actualExitCode = BatchPricingCli.run(new String[]{"quotes.csv"}, logStream());
+
+        //then
+        assertEquals(2, actualExitCode);
+        assertTrue(log.toString(StandardCharsets.UTF_8).contains(BatchPricingCli.USAGE));
+    }
+
+    private PrintStream logStream() {
+        return new PrintStream(log, true, StandardCharsets.UTF_8);
+    }
+}
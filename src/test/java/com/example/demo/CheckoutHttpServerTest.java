@@ -0,0 +1,165 @@
+package com.example.demo;
+
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CheckoutHttpServerTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final Tool JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false);
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private CheckoutHttpServer checkoutHttpServer;
+
+    @BeforeEach
+    public void setup() {
+        RentalAgreementService rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(),
+                new ToolCatalog(List.of(LADW, JAKR)));
+        checkoutHttpServer = new CheckoutHttpServer(rentalAgreementService, 0);
+    }
+
+    @Test
+    public void checkout_ValidRequest_ReturnsAgreementJson() throws Exception {
+        //given
+        checkoutHttpServer.start();
+        try {
+            String body = "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"discountPercent\":10,\"checkoutDate\":\"2020-07-02\"}";
+
+            //when
+            HttpResponse<String> response = post("/checkout", body);
+
+            //then
+            assertEquals(200, response.statusCode());
+            assertTrue(response.body().startsWith("{\"toolCode\":\"LADW\""));
+            assertTrue(response.body().contains("\"chargeDays\":2"));
+            assertTrue(response.body().contains("\"finalCharge\":3.58"));
+        } finally {
+            checkoutHttpServer.stop();
+        }
+    }
+
+    @Test
+    public void checkout_InvalidDiscount_ReturnsBadRequest() throws Exception {
+        //given
+        checkoutHttpServer.start();
+        try {
+            String body = "{\"toolCode\":\"JAKR\",\"rentalDays\":5,\"discountPercent\":101,\"checkoutDate\":\"2015-09-03\"}";
+
+            //when
+            HttpResponse<String> response = post("/checkout", body);
+
+            //then
+            assertEquals(400, response.statusCode());
+            assertEquals("{\"error\":\"" + RentalAgreementService.INVALID_DISCOUNT_MESSAGE + "\",\"code\":\"INVALID_DISCOUNT\"}", response.body());
+        } finally {
+            checkoutHttpServer.stop();
+        }
+    }
+
+    @Test
+    public void checkoutBatch_MixedRequests_ReturnsResultsInOrder() throws Exception {
+        //given
+        checkoutHttpServer.start();
+        try {
+            String body = "[{\"toolCode\":\"JAKR\",\"rentalDays\":6,\"discountPercent\":0,\"checkoutDate\":\"2015-09-03\"},"
+                    + "{\"toolCode\":\"XXXX\",\"rentalDays\":1,\"checkoutDate\":\"2015-09-03\"},"
+                    + "{\"toolCode\":\"LADW\",\"rentalDays\":0,\"checkoutDate\":\"2015-09-03\"}]";
+
+            //when
+            HttpResponse<String> response = post("/checkout/batch", body);
+
+            //then
+            assertEquals(200, response.statusCode());
+            String[] items = response.body().substring(1, response.body().length() - 1).split("},\\{");
+            assertEquals(3, items.length);
+            assertTrue(items[0].contains("\"chargeDays\":3"));
+            assertTrue(items[1].contains("Please enter a valid tool code."));
+            assertTrue(items[1].contains("\"code\":\"UNKNOWN_TOOL\""));
+            assertTrue(items[2].contains(RentalAgreementService.INVALID_RENTAL_DAYS_MESSAGE));
+        } finally {
+            checkoutHttpServer.stop();
+        }
+    }
+
+    @Test
+    public void checkout_MalformedJson_ReturnsBadRequest() throws Exception {
+        //given
+        checkoutHttpServer.start();
+        try {
+            //when
+            HttpResponse<String> response = post("/checkout", "{\"toolCode\":");
+
+            //then
+            assertEquals(400, response.statusCode());
+            assertTrue(response.body().contains("Invalid JSON"));
+        } finally {
+            checkoutHttpServer.stop();
+        }
+    }
+
+    @Test
+    public void checkout_BodyOverLimit_ReturnsPayloadTooLarge() throws Exception {
+        //given
+        RentalAgreementService rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(),
+                new ToolCatalog(List.of(LADW, JAKR)));
+        checkoutHttpServer = new CheckoutHttpServer(rentalAgreementService, 0, 64);
+        checkoutHttpServer.start();
+        try {
+            String body = "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"discountPercent\":10,\"checkoutDate\":\"2020-07-02\"}";
+
+            //when
+            HttpResponse<String> response = post("/checkout", body);
+
+            //then
+            assertEquals(413, response.statusCode());
+            assertEquals("{\"error\":\"Please send a request body of at most 64 bytes.\"}", response.body());
+        } finally {
+            checkoutHttpServer.stop();
+        }
+    }
+
+    @Test
+    public void checkout_ChunkedBodyOverLimit_ReturnsPayloadTooLarge() throws Exception {
+        //given
+        RentalAgreementService rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(),
+                new ToolCatalog(List.of(LADW, JAKR)));
+        checkoutHttpServer = new CheckoutHttpServer(rentalAgreementService, 0, 64);
+        checkoutHttpServer.start();
+        try {
+            byte[] body = "{\"toolCode\":\"LADW\",\"rentalDays\":3,\"discountPercent\":10,\"checkoutDate\":\"2020-07-02\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + checkoutHttpServer.getPort() + "/checkout"))
+                    .POST(HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(body)))
+                    .build();
+
+            //when
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+            //then
+            assertEquals(413, response.statusCode());
+        } finally {
+            checkoutHttpServer.stop();
+        }
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + checkoutHttpServer.getPort() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
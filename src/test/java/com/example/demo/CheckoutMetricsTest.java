@@ -0,0 +1,98 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutRequest;
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CheckoutMetricsTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final Tool JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false);
+
+    private MeterRegistry meterRegistry;
+    private CheckoutMetrics checkoutMetrics;
+    private List<RentalAgreement> acceptedAgreements;
+    private RentalAgreementService rentalAgreementService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        checkoutMetrics = new CheckoutMetrics(meterRegistry, 1);
+        acceptedAgreements = new ArrayList<>();
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(LADW, JAKR)),
+                checkoutMetrics.instrument(acceptedAgreements::add), PricingMode.BIG_DECIMAL, null, null, checkoutMetrics, null, null);
+    }
+
+    @Test
+    public void checkout_ValidAndInvalidRequests_RecordsMetersByToolTypeAndRule() {
+        //when
+        rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+        rentalAgreementService.checkout(LADW, 5, 0, LocalDate.of(2015, 7, 2));
+        rentalAgreementService.checkout(JAKR, 6, 0, LocalDate.of(2015, 9, 3));
+        assertThrows(IllegalArgumentException.class, () -> rentalAgreementService.checkout(JAKR, 5, 101, LocalDate.of(2015, 9, 3)));
+        assertThrows(IllegalArgumentException.class, () -> rentalAgreementService.checkout(JAKR, 0, 10, LocalDate.of(2015, 9, 3)));
+        assertThrows(IllegalArgumentException.class, () -> rentalAgreementService.checkout(JAKR, 0, 10, LocalDate.of(2015, 9, 3)));
+
+        //then
+        assertEquals(2.0, meterRegistry.get("rental.checkouts").tag("toolType", "Ladder").counter().count());
+        assertEquals(2, meterRegistry.get("rental.checkout").tag("toolType", "Ladder").timer().count());
+        assertEquals(1.0, meterRegistry.get("rental.checkouts").tag("toolType", "Jackhammer").counter().count());
+        assertEquals(3, meterRegistry.get("rental.charge-days").timer().count());
+        assertEquals(5.0, meterRegistry.get("rental.holiday.lookups").counter().count());
+        assertEquals(1.0, meterRegistry.get("rental.validation.failures").tag("rule", "discount").counter().count());
+        assertEquals(2.0, meterRegistry.get("rental.validation.failures").tag("rule", "rental-days").counter().count());
+        assertEquals(3, meterRegistry.get("rental.agreement.render").timer().count());
+        assertEquals(3, acceptedAgreements.size());
+    }
+
+    @Test
+    public void checkoutBatchAndPriceCompact_ValidRequests_RecordCheckouts() {
+        //when
+        rentalAgreementService.checkoutBatch(List.of(new CheckoutRequest(LADW, 3, 10, LocalDate.of(2020, 7, 2)),
+                new CheckoutRequest(JAKR, 6, 0, LocalDate.of(2015, 9, 3)), new CheckoutRequest(JAKR, 0, 0, LocalDate.of(2015, 9, 3))));
+        rentalAgreementService.priceCompact(LADW, 5, 0, LocalDate.of(2015, 7, 2));
+
+        //then
+        assertEquals(2.0, meterRegistry.get("rental.checkouts").tag("toolType", "Ladder").counter().count());
+        assertEquals(1.0, meterRegistry.get("rental.checkouts").tag("toolType", "Jackhammer").counter().count());
+        assertEquals(1.0, meterRegistry.get("rental.validation.failures").tag("rule", "rental-days").counter().count());
+    }
+
+    @Test
+    public void start_SampleRate_TimesAboutOneInRateEventsAndScalesCounter() {
+        //given
+        CheckoutMetrics sampledMetrics = new CheckoutMetrics(meterRegistry, 16);
+
+        //when
+        for (int i = 0; i < 16_000; i++) {
+            sampledMetrics.recordCheckout("Ladder", sampledMetrics.start());
+        }
+
+        //then
+        long actualTimed = meterRegistry.get("rental.checkout").tag("toolType", "Ladder").timer().count();
+        double actualCounted = meterRegistry.get("rental.checkouts").tag("toolType", "Ladder").counter().count();
+        assertEquals(1000, actualTimed, 200);
+        assertEquals(actualTimed * 16.0, actualCounted);
+    }
+
+    @Test
+    public void constructor_InvalidSampleRate_ThrowsException() {
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new CheckoutMetrics(meterRegistry, 0));
+
+        //then
+        assertEquals("Please choose a metrics sample rate of 1 or greater.", exception.getMessage());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FixedPointPricingTest {
+
+    @Test
+    public void applyCharges_RandomInputs_IdenticalToBigDecimalPath() {
+        //given
+        Random random = new Random(823);
+
+        for (int i = 0; i < 1_000_000; i++) {
+            BigDecimal dailyCharge = BigDecimal.valueOf(random.nextInt(1_000_000) - 1000, random.nextInt(5));
+            int chargeDays = random.nextInt(4000);
+            int discountPercent = random.nextInt(101);
+            RentalAgreement expected = new RentalAgreement();
+            RentalAgreement actual = new RentalAgreement();
+
+            //when
+            RentalAgreementService.applyCharges(dailyCharge, chargeDays, discountPercent, expected);
+            boolean applied = FixedPointPricing.applyCharges(dailyCharge, chargeDays, discountPercent, actual);
+
+            //then
+            String input = dailyCharge + " x " + chargeDays + " @ " + discountPercent + "%";
+            assertTrue(applied, input);
+            assertEquals(expected.getPreDiscountCharge(), actual.getPreDiscountCharge(), input);
+            assertEquals(expected.getDiscountAmount(), actual.getDiscountAmount(), input);
+            assertEquals(expected.getFinalCharge(), actual.getFinalCharge(), input);
+        }
+    }
+
+    @Test
+    public void applyCharges_AmountTooLargeForLong_FallsBack() {
+        //given
+        BigDecimal dailyCharge = new BigDecimal("92233720368547758.07");
+        RentalAgreement rentalAgreement = new RentalAgreement();
+
+        //when
+        boolean applied = FixedPointPricing.applyCharges(dailyCharge, 3650, 10, rentalAgreement);
+
+        //then
+        assertFalse(applied);
+    }
+
+    @Test
+    public void divideHalfUp_Halves_RoundAwayFromZero() {
+        assertEquals(3, FixedPointPricing.divideHalfUp(250, 100));
+        assertEquals(2, FixedPointPricing.divideHalfUp(249, 100));
+        assertEquals(-3, FixedPointPricing.divideHalfUp(-250, 100));
+        assertEquals(-2, FixedPointPricing.divideHalfUp(-249, 100));
+    }
+}
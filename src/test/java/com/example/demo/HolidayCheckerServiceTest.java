@@ -3,17 +3,16 @@ package com.example.demo;
 import com.example.demo.model.Tool;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.LocalDate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HolidayCheckerServiceTest {
 
-    @Autowired
-    HolidayCheckerService holidayServiceChecker;
+    HolidayCheckerService holidayServiceChecker = new HolidayCheckerService();
 
     @Test
     public void checkForIndependenceDay_JulyFourth_IsHoliday() {
@@ -21,7 +20,7 @@ public class HolidayCheckerServiceTest {
         LocalDate julyFourth = LocalDate.of(2023, 7, 4);
 
         //when
-        boolean actualResult = holidayServiceChecker.checkForIndependenceDay(julyFourth);
+        boolean actualResult = holidayServiceChecker.isIndependenceDay(julyFourth);
 
         //then
         assertTrue(actualResult);
@@ -33,7 +32,7 @@ public class HolidayCheckerServiceTest {
         LocalDate julyDate = LocalDate.of(2021, 7, 5);
 
         //when
-        boolean actualResult = holidayServiceChecker.checkForIndependenceDay(julyDate);
+        boolean actualResult = holidayServiceChecker.isIndependenceDay(julyDate);
 
         //then
         assertTrue(actualResult);
@@ -45,7 +44,7 @@ public class HolidayCheckerServiceTest {
         LocalDate julyDate = LocalDate.of(2020, 7, 3);
 
         //when
-        boolean actualResult = holidayServiceChecker.checkForIndependenceDay(julyDate);
+        boolean actualResult = holidayServiceChecker.isIndependenceDay(julyDate);
 
         //then
         assertTrue(actualResult);
@@ -57,7 +56,7 @@ public class HolidayCheckerServiceTest {
         LocalDate julyDate = LocalDate.of(2023, 7, 3);
 
         //when
-        boolean actualResult = holidayServiceChecker.checkForIndependenceDay(julyDate);
+        boolean actualResult = holidayServiceChecker.isIndependenceDay(julyDate);
 
         //then
         assertFalse(actualResult);
@@ -69,7 +68,7 @@ public class HolidayCheckerServiceTest {
         LocalDate julyDate = LocalDate.of(2023, 7, 5);
 
         //when
-        boolean actualResult = holidayServiceChecker.checkForIndependenceDay(julyDate);
+        boolean actualResult = holidayServiceChecker.isIndependenceDay(julyDate);
 
         //then
         assertFalse(actualResult);
@@ -89,15 +88,15 @@ public class HolidayCheckerServiceTest {
         LocalDate laborDay2015 = LocalDate.of(2015, 9, 7);
 
         //when
-        boolean actual2023 = holidayServiceChecker.checkForLaborDay(laborDay2023);
-        boolean actual2022 = holidayServiceChecker.checkForLaborDay(laborDay2022);
-        boolean actual2021 = holidayServiceChecker.checkForLaborDay(laborDay2021);
-        boolean actual2020 = holidayServiceChecker.checkForLaborDay(laborDay2020);
-        boolean actual2019 = holidayServiceChecker.checkForLaborDay(laborDay2019);
-        boolean actual2018 = holidayServiceChecker.checkForLaborDay(laborDay2018);
-        boolean actual2017 = holidayServiceChecker.checkForLaborDay(laborDay2017);
-        boolean actual2016 = holidayServiceChecker.checkForLaborDay(laborDay2016);
-        boolean actual2015 = holidayServiceChecker.checkForLaborDay(laborDay2015);
+        boolean actual2023 = holidayServiceChecker.isLaborDay(laborDay2023);
+        boolean actual2022 = holidayServiceChecker.isLaborDay(laborDay2022);
+        boolean actual2021 = holidayServiceChecker.isLaborDay(laborDay2021);
+        boolean actual2020 = holidayServiceChecker.isLaborDay(laborDay2020);
+        boolean actual2019 = holidayServiceChecker.isLaborDay(laborDay2019);
+        boolean actual2018 = holidayServiceChecker.isLaborDay(laborDay2018);
+        boolean actual2017 = holidayServiceChecker.isLaborDay(laborDay2017);
+        boolean actual2016 = holidayServiceChecker.isLaborDay(laborDay2016);
+        boolean actual2015 = holidayServiceChecker.isLaborDay(laborDay2015);
 
         //then
         assertTrue(actual2023);
@@ -120,10 +119,10 @@ public class HolidayCheckerServiceTest {
         LocalDate dayBeforeLaborDay2022 = LocalDate.of(2022, 9, 3);
 
         //when
-        boolean actualAfter2023 = holidayServiceChecker.checkForLaborDay(dayAfterLaborDay2023);
-        boolean actualAfter2022 = holidayServiceChecker.checkForLaborDay(dayAfterLaborDay2022);
-        boolean actualBefore2023 = holidayServiceChecker.checkForLaborDay(dayBeforeLaborDay2023);
-        boolean actualBefore2022 = holidayServiceChecker.checkForLaborDay(dayBeforeLaborDay2022);
+        boolean actualAfter2023 = holidayServiceChecker.isLaborDay(dayAfterLaborDay2023);
+        boolean actualAfter2022 = holidayServiceChecker.isLaborDay(dayAfterLaborDay2022);
+        boolean actualBefore2023 = holidayServiceChecker.isLaborDay(dayBeforeLaborDay2023);
+        boolean actualBefore2022 = holidayServiceChecker.isLaborDay(dayBeforeLaborDay2022);
 
         //then
         assertFalse(actualAfter2023);
@@ -133,4 +132,46 @@ public class HolidayCheckerServiceTest {
 
     }
 
+    @Test
+    public void isHoliday_ObservedHolidays_IsHoliday() {
+        //given
+        LocalDate observedIndependenceDay2020 = LocalDate.of(2020, 7, 3);
+        LocalDate laborDay2015 = LocalDate.of(2015, 9, 7);
+        LocalDate saturdayJulyFourth2020 = LocalDate.of(2020, 7, 4);
+
+        //when
+        boolean actualObserved = holidayServiceChecker.isHoliday(observedIndependenceDay2020);
+        boolean actualLaborDay = holidayServiceChecker.isHoliday(laborDay2015);
+        boolean actualSaturday = holidayServiceChecker.isHoliday(saturdayJulyFourth2020);
+
+        //then
+        assertTrue(actualObserved);
+        assertTrue(actualLaborDay);
+        assertFalse(actualSaturday);
+    }
+
+    @Test
+    public void countHolidays_AcrossSeveralYears_CountsEveryObservedHoliday() {
+        //given
+        LocalDate from = LocalDate.of(2015, 7, 3);
+        LocalDate to = LocalDate.of(2020, 7, 3);
+
+        //when
+        int actualHolidays = holidayServiceChecker.countHolidays(from, to);
+
+        //then
+        assertEquals(10, actualHolidays);
+    }
+
+    @Test
+    public void countHolidays_EmptyRange_IsZero() {
+        //given
+        LocalDate laborDay2023 = LocalDate.of(2023, 9, 4);
+
+        //when
+        int actualHolidays = holidayServiceChecker.countHolidays(laborDay2023, laborDay2023);
+
+        //then
+        assertEquals(0, actualHolidays);
+    }
 }
@@ -0,0 +1,135 @@
+package com.example.demo;
+
+import com.example.demo.model.HolidayRule;
+import com.example.demo.model.HolidayRuleType;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HolidayRuleCompilerTest {
+
+    private static final HolidayRule MEMORIAL_DAY = new HolidayRule("Memorial Day", HolidayRuleType.LAST_WEEKDAY, 5, 0, DayOfWeek.MONDAY, 0, false);
+    private static final HolidayRule THANKSGIVING = new HolidayRule("Thanksgiving", HolidayRuleType.NTH_WEEKDAY, 11, 0, DayOfWeek.THURSDAY, 4, false);
+    private static final HolidayRule NEW_YEARS_DAY = new HolidayRule("New Year's Day", HolidayRuleType.FIXED_DATE, 1, 1, null, 0, true);
+
+    @Test
+    public void compile_DefaultRules_MatchesBuiltInHolidayChecks() {
+        //given
+        HolidayCalendarIndex index = HolidayRuleCompiler.compile(HolidayCheckerService.DEFAULT_HOLIDAY_RULES);
+        LocalDate from = LocalDate.of(2010, 1, 1);
+        LocalDate to = LocalDate.of(2030, 1, 1);
+        HolidayCheckerService holidayCheckerService = new HolidayCheckerService();
+
+        //when / then
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            boolean expected = holidayCheckerService.isIndependenceDay(date) || holidayCheckerService.isLaborDay(date);
+            assertEquals(expected, index.isHoliday(date.toEpochDay()), date.toString());
+        }
+    }
+
+    @Test
+    public void compile_LastAndNthWeekdayRules_FindMemorialDayAndThanksgiving() {
+        //given
+        HolidayCalendarIndex index = HolidayRuleCompiler.compile(List.of(MEMORIAL_DAY, THANKSGIVING));
+
+        //when
+        boolean actualMemorialDay = index.isHoliday(LocalDate.of(2024, 5, 27).toEpochDay());
+        boolean actualThanksgiving = index.isHoliday(LocalDate.of(2023, 11, 23).toEpochDay());
+        boolean actualWeekBeforeMemorialDay = index.isHoliday(LocalDate.of(2024, 5, 20).toEpochDay());
+
+        //then
+        assertTrue(actualMemorialDay);
+        assertTrue(actualThanksgiving);
+        assertFalse(actualWeekBeforeMemorialDay);
+    }
+
+    @Test
+    public void compile_FixedDateOnSaturday_ObservedOnPreviousYearsFriday() {
+        //given
+        HolidayCalendarIndex index = HolidayRuleCompiler.compile(List.of(NEW_YEARS_DAY));
+
+        //when
+        boolean actualDecemberThirtyFirst = index.isHoliday(LocalDate.of(2021, 12, 31).toEpochDay());
+        boolean actualSaturday = index.isHoliday(LocalDate.of(2022, 1, 1).toEpochDay());
+
+        //then
+        assertTrue(actualDecemberThirtyFirst);
+        assertFalse(actualSaturday);
+    }
+
+    @Test
+    public void compileRule_NthWeekdayWithoutDayOfWeek_ThrowsException() {
+        //given
+        HolidayRule invalidRule = new HolidayRule("Broken", HolidayRuleType.NTH_WEEKDAY, 11, 0, null, 4, false);
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> HolidayRuleCompiler.compileRule(invalidRule));
+
+        //then
+        assertTrue(exception.getMessage().contains("Invalid holiday rule 'Broken'"));
+    }
+
+    @Test
+    public void compileStoreCalendars_RegionsWithSameHolidays_ShareOneCalendar() {
+        //given
+        HolidayRule patriotsDay = new HolidayRule("Patriots' Day", HolidayRuleType.NTH_WEEKDAY, 4, 0, DayOfWeek.MONDAY, 3, false);
+        HolidayRule patriotsDayRenamed = new HolidayRule("Patriots Day", HolidayRuleType.NTH_WEEKDAY, 4, 0, DayOfWeek.MONDAY, 3, false);
+        Map<String, List<HolidayRule>> regionalRules = Map.of(
+                "MA", List.of(patriotsDay),
+                "ME", List.of(patriotsDayRenamed),
+                "TX", List.of(MEMORIAL_DAY),
+                "US", List.of());
+        Map<String, String> storeRegions = Map.of("boston", "MA", "portland", "ME", "austin", "TX", "denver", "US");
+
+        //when
+        StoreHolidayCalendars calendars = HolidayRuleCompiler.compileStoreCalendars(HolidayCheckerService.DEFAULT_HOLIDAY_RULES,
+                regionalRules, storeRegions);
+
+        //then
+        assertEquals(3, calendars.getDistinctCalendars().size());
+        assertSame(calendars.findCalendar("boston"), calendars.findCalendar("portland"));
+        assertSame(calendars.getDefaultCalendar(), calendars.findCalendar("denver"));
+        assertSame(calendars.getDefaultCalendar(), calendars.findCalendar(null));
+        assertNull(calendars.findCalendar("seattle"));
+        assertTrue(calendars.findCalendar("boston").isHoliday(LocalDate.of(2024, 4, 15).toEpochDay()));
+        assertTrue(calendars.findCalendar("boston").isHoliday(LocalDate.of(2024, 7, 4).toEpochDay()));
+        assertFalse(calendars.findCalendar("austin").isHoliday(LocalDate.of(2024, 4, 15).toEpochDay()));
+    }
+
+    @Test
+    public void compileStoreCalendars_StoreInRegionListedWithoutRules_UsesDefaultCalendar() {
+        //given
+        Map<String, String> storeRegions = Map.of("boston", "MA");
+
+        //when
+        StoreHolidayCalendars calendars = HolidayRuleCompiler.compileStoreCalendars(HolidayCheckerService.DEFAULT_HOLIDAY_RULES,
+                Map.of("MA", List.of()), storeRegions);
+
+        //then
+        assertSame(calendars.getDefaultCalendar(), calendars.findCalendar("boston"));
+        assertEquals(1, calendars.getDistinctCalendars().size());
+    }
+
+    @Test
+    public void compileStoreCalendars_StoreInUnknownRegion_ThrowsException() {
+        //given
+        Map<String, String> storeRegions = Map.of("boston", "MA");
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> HolidayRuleCompiler.compileStoreCalendars(
+                HolidayCheckerService.DEFAULT_HOLIDAY_RULES, Map.of(), storeRegions));
+
+        //then
+        assertEquals("Invalid store 'boston': region 'MA' is not configured.", exception.getMessage());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo;
+
+import com.example.demo.model.Promotion;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PromotionCompilerTest {
+
+    private static final List<String> TOOL_TYPES = List.of("Ladder", "Chainsaw", "Jackhammer");
+    private static final List<String> LOYALTY_CODES = List.of("GOLD", "SILVER");
+
+    @Test
+    public void compile_RandomPromotions_MatchesSummingEveryMatchingPromotion() {
+        //given
+        Random random = new Random(23);
+        List<Promotion> promotions = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            int minRentalDays = random.nextInt(3) == 0 ? 0 : 1 + random.nextInt(10);
+            int maxRentalDays = random.nextInt(3) == 0 ? 0 : minRentalDays + random.nextInt(10);
+            LocalDate startDate = random.nextInt(3) == 0 ? null : LocalDate.of(2020, 1, 1).plusDays(random.nextInt(60));
+            LocalDate endDate = random.nextInt(3) == 0 ? null : LocalDate.of(2020, 3, 1).plusDays(random.nextInt(60));
+            promotions.add(new Promotion("Promotion " + i, 1 + random.nextInt(20),
+                    random.nextBoolean() ? null : TOOL_TYPES.get(random.nextInt(TOOL_TYPES.size())),
+                    random.nextInt(3) == 0 ? LOYALTY_CODES.get(random.nextInt(LOYALTY_CODES.size())) : null,
+                    minRentalDays, maxRentalDays, startDate, endDate));
+        }
+
+        //when
+        PromotionIndex index = PromotionCompiler.compile(promotions);
+
+        //then
+        List<String> toolTypes = new ArrayList<>(TOOL_TYPES);
+        toolTypes.add("Drill");
+        List<String> loyaltyCodes = new ArrayList<>(LOYALTY_CODES);
+        loyaltyCodes.add("BRONZE");
+        loyaltyCodes.add(null);
+        for (String toolType : toolTypes) {
+            for (String loyaltyCode : loyaltyCodes) {
+                for (LocalDate date = LocalDate.of(2019, 12, 25); date.isBefore(LocalDate.of(2020, 5, 10)); date = date.plusDays(1)) {
+                    for (int rentalDays = 1; rentalDays <= 25; rentalDays++) {
+                        int expected = Math.min(100, sumMatching(promotions, toolType, loyaltyCode, date, rentalDays));
+                        assertEquals(expected, index.discountPercent(toolType, loyaltyCode, date.toEpochDay(), rentalDays),
+                                toolType + " " + loyaltyCode + " " + date + " " + rentalDays);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void compile_StackedPromotionsAboveOneHundred_CapsAtOneHundred() {
+        //given
+        List<Promotion> promotions = List.of(
+                new Promotion("Clearance", 70, "Ladder", null, 0, 0, null, null),
+                new Promotion("Loyalty", 50, null, "GOLD", 0, 0, null, null));
+
+        //when
+        PromotionIndex index = PromotionCompiler.compile(promotions);
+
+        //then
+        assertEquals(100, index.discountPercent("Ladder", "GOLD", 0, 3));
+        assertEquals(70, index.discountPercent("Ladder", null, 0, 3));
+        assertEquals(50, index.discountPercent("Chainsaw", "GOLD", 0, 3));
+    }
+
+    @Test
+    public void compile_MaximumBelowMinimumRentalDays_ThrowsException() {
+        //given
+        Promotion promotion = new Promotion("Long rental", 5, null, null, 7, 3, null, null);
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> PromotionCompiler.compile(List.of(promotion)));
+
+        //then
+        assertTrue(exception.getMessage().startsWith("Invalid promotion 'Long rental'"));
+    }
+
+    @Test
+    public void compile_EndDateBeforeStartDate_ThrowsException() {
+        //given
+        Promotion promotion = new Promotion("Summer", 5, null, null, 0, 0, LocalDate.of(2020, 8, 31), LocalDate.of(2020, 6, 1));
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> PromotionCompiler.compile(List.of(promotion)));
+
+        //then
+        assertTrue(exception.getMessage().contains("the end date must be on or after the start date"));
+    }
+
+    @Test
+    public void compile_PercentOutOfRange_ThrowsException() {
+        //given
+        Promotion promotion = new Promotion("Free", 101, null, null, 0, 0, null, null);
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> PromotionCompiler.compile(List.of(promotion)));
+
+        //then
+        assertTrue(exception.getMessage().contains("the percent must be between 1 and 100"));
+    }
+
+    private static int sumMatching(List<Promotion> promotions, String toolType, String loyaltyCode, LocalDate date, int rentalDays) {
+        int sum = 0;
+        for (Promotion promotion : promotions) {
+            boolean matches = (promotion.getToolType() == null || promotion.getToolType().equals(toolType))
+                    && (promotion.getLoyaltyCode() == null || promotion.getLoyaltyCode().equals(loyaltyCode))
+                    && (promotion.getMinRentalDays() == 0 || rentalDays >= promotion.getMinRentalDays())
+                    && (promotion.getMaxRentalDays() == 0 || rentalDays <= promotion.getMaxRentalDays())
+                    && (promotion.getStartDate() == null || !date.isBefore(promotion.getStartDate()))
+                    && (promotion.getEndDate() == null || !date.isAfter(promotion.getEndDate()));
+            if (matches) {
+                sum += promotion.getPercent();
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuoteCacheTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final LocalDate CHECKOUT_DATE = LocalDate.of(2020, 7, 2);
+
+    private final AtomicInteger pricings = new AtomicInteger();
+
+    private RentalAgreement countingPricer(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate) {
+        pricings.incrementAndGet();
+        return new RentalAgreement(tool.getToolCode(), tool.getToolType(), tool.getBrand(), rentalDays, checkoutDate,
+                checkoutDate.plusDays(rentalDays), tool.getDailyCharge(), rentalDays, BigDecimal.ONE, discountPercent,
+                BigDecimal.ZERO, BigDecimal.ONE);
+    }
+
+    @Test
+    public void getOrPrice_RepeatedQuote_PricesOnceAndReturnsCopies() {
+        //given
+        QuoteCache quoteCache = new QuoteCache(100, () -> 0);
+
+        //when
+        RentalAgreement first = quoteCache.getOrPrice(LADW, 3, 10, CHECKOUT_DATE, this::countingPricer);
+        RentalAgreement second = quoteCache.getOrPrice(LADW, 3, 10, CHECKOUT_DATE, this::countingPricer);
+
+        //then
+        assertEquals(1, pricings.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, quoteCache.getHits());
+        assertEquals(1, quoteCache.getMisses());
+    }
+
+    @Test
+    public void getOrPrice_MoreQuotesThanCapacity_EvictsLeastRecentlyUsed() {
+        //given
+        QuoteCache quoteCache = new QuoteCache(16, () -> 0);
+
+        //when
+        for (int rentalDays = 1; rentalDays <= 1000; rentalDays++) {
+            quoteCache.getOrPrice(LADW, rentalDays, 0, CHECKOUT_DATE, this::countingPricer);
+        }
+
+        //then
+        assertTrue(quoteCache.size() <= 16);
+        assertEquals(1000 - quoteCache.size(), quoteCache.getEvictions());
+    }
+
+    @Test
+    public void getOrPrice_GenerationChanged_RepricesEverything() {
+        //given
+        AtomicLong generation = new AtomicLong();
+        QuoteCache quoteCache = new QuoteCache(100, generation::get);
+        quoteCache.getOrPrice(LADW, 3, 10, CHECKOUT_DATE, this::countingPricer);
+
+        //when
+        generation.incrementAndGet();
+        quoteCache.getOrPrice(LADW, 3, 10, CHECKOUT_DATE, this::countingPricer);
+
+        //then
+        assertEquals(2, pricings.get());
+    }
+
+    @Test
+    public void getOrPrice_GenerationChangedWhilePricing_DoesNotCacheStaleQuote() {
+        //given
+        AtomicLong generation = new AtomicLong();
+        QuoteCache quoteCache = new QuoteCache(100, generation::get);
+        quoteCache.getOrPrice(LADW, 3, 10, CHECKOUT_DATE, (tool, rentalDays, discountPercent, checkoutDate) -> {
+            generation.incrementAndGet();
+            return countingPricer(tool, rentalDays, discountPercent, checkoutDate);
+        });
+
+        //when
+        quoteCache.getOrPrice(LADW, 3, 10, CHECKOUT_DATE, this::countingPricer);
+
+        //then
+        assertEquals(2, pricings.get());
+        assertEquals(0, quoteCache.getHits());
+    }
+
+    @Test
+    public void getOrPrice_SameCodeDifferentTool_Reprices() {
+        //given
+        QuoteCache quoteCache = new QuoteCache(100, () -> 0);
+        Tool repricedLadder = new Tool("LADW", "Ladder", "Werner", new BigDecimal("2.49"), true, true, false);
+        quoteCache.getOrPrice(LADW, 3, 10, CHECKOUT_DATE, this::countingPricer);
+
+        //when
+        RentalAgreement actual = quoteCache.getOrPrice(repricedLadder, 3, 10, CHECKOUT_DATE, this::countingPricer);
+
+        //then
+        assertEquals(2, pricings.get());
+        assertEquals(new BigDecimal("2.49"), actual.getDailyRentalCharge());
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutError;
+import com.example.demo.model.QuoteFileSummary;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QuoteFilePipelineTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final Tool CHNS = new Tool("CHNS", "Chainsaw", "Stihl", new BigDecimal("1.49"), true, false, true);
+    private static final Tool JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false);
+
+    private RentalAgreementService rentalAgreementService;
+
+    @BeforeEach
+    public void setup() {
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(LADW, CHNS, JAKR)));
+    }
+
+    @Test
+    public void run_MixedRows_WritesOneResultPerRowInOrder() throws IOException {
+        //given
+        QuoteFilePipeline quoteFilePipeline = new QuoteFilePipeline(rentalAgreementService, 2, 3);
+        String input = "toolCode,checkoutDate,rentalDays,discountPercent\n"
+                + "LADW,2020-07-02,3,10\r\n"
+                + "# a comment\n"
+                + "XXXX,2015-09-03,1,0\n"
+                + "\n"
+                + "JAKR,2015-09-03,0,10\n"
+                + "JAKR,2015-09-03,5,101\n"
+                + "JAKR,2015-02-30,5,10\n"
+                + "JAKR,2015-09-03,five,10\n"
+                + "JAKR,2015-09-03,6,0";
+        StringWriter output = new StringWriter();
+
+        //when
+        QuoteFileSummary actual = quoteFilePipeline.run(new StringReader(input), output);
+
+        //then
+        String[] lines = output.toString().split("\n", -1);
+        assertEquals(new QuoteFileSummary(7, 5), actual);
+        assertEquals(QuoteFilePipeline.OUTPUT_HEADER, lines[0]);
+        assertEquals(agreementRow(LADW, 3, 10, LocalDate.of(2020, 7, 2)), lines[1]);
+        assertEquals("XXXX,,,1,2015-09-03,,,,,0,,,UNKNOWN_TOOL", lines[2]);
+        assertEquals("JAKR,,,0,2015-09-03,,,,,10,,,INVALID_RENTAL_DAYS", lines[3]);
+        assertEquals("JAKR,,,5,2015-09-03,,,,,101,,,INVALID_DISCOUNT", lines[4]);
+        assertEquals(",,,,,,,,,,,," + CheckoutError.MALFORMED_ROW.name(), lines[5]);
+        assertEquals(",,,,,,,,,,,," + CheckoutError.MALFORMED_ROW.name(), lines[6]);
+        assertEquals(agreementRow(JAKR, 6, 0, LocalDate.of(2015, 9, 3)), lines[7]);
+        assertEquals("", lines[8]);
+        assertEquals(9, lines.length);
+    }
+
+    @Test
+    public void run_LargeFile_MatchesSequentialCheckoutInInputOrder() throws IOException {
+        //given
+        QuoteFilePipeline quoteFilePipeline = new QuoteFilePipeline(rentalAgreementService, 64, 4);
+        Random random = new Random(21);
+        List<Tool> tools = List.of(LADW, CHNS, JAKR);
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder(QuoteFilePipeline.OUTPUT_HEADER).append('\n');
+        for (int i = 0; i < 20_000; i++) {
+            Tool tool = tools.get(random.nextInt(tools.size()));
+            LocalDate checkoutDate = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3000));
+            int rentalDays = 1 + random.nextInt(60);
+            int discountPercent = random.nextInt(101);
+            input.append(tool.getToolCode()).append(',').append(checkoutDate).append(',').append(rentalDays).append(',')
+                    .append(discountPercent).append('\n');
+            expected.append(agreementRow(tool, rentalDays, discountPercent, checkoutDate)).append('\n');
+        }
+        Path inputFile = Files.createTempFile("quotes", ".csv");
+        Path outputFile = Files.createTempFile("agreements", ".csv");
+        Files.writeString(inputFile, input, StandardCharsets.UTF_8);
+
+        //when
+        QuoteFileSummary actual;
+        String actualOutput;
+        try {
+            actual = quoteFilePipeline.run(inputFile, outputFile);
+            actualOutput = Files.readString(outputFile, StandardCharsets.UTF_8);
+        } finally {
+            Files.deleteIfExists(inputFile);
+            Files.deleteIfExists(outputFile);
+        }
+
+        //then
+        assertEquals(new QuoteFileSummary(20_000, 0), actual);
+        assertEquals(expected.toString(), actualOutput);
+    }
+
+    @Test
+    public void run_RowLongerThanChunk_ThrowsException() {
+        //given
+        QuoteFilePipeline quoteFilePipeline = new QuoteFilePipeline(rentalAgreementService, 1, 1);
+        String input = "LADW,2020-07-02,3,10" + " ".repeat(10_000) + "\n";
+
+        //when
+        Exception exception = assertThrows(IOException.class, () -> quoteFilePipeline.run(new StringReader(input), new StringWriter()));
+
+        //then
+        assertTrue(exception.getMessage().startsWith("Please keep quote file rows under"));
+    }
+
+    @Test
+    public void run_ChargeTooLargeForCompactForm_RejectsRowAndContinues() throws IOException {
+        //given
+        Tool crane = new Tool("CRAN", "Crane", "Liebherr", new BigDecimal("9000000000000000.00"), true, true, true);
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(LADW, crane)));
+        QuoteFilePipeline quoteFilePipeline = new QuoteFilePipeline(rentalAgreementService, 1, 4);
+        String input = "CRAN,2020-07-02,20,0\nLADW,2020-07-02,3,10\n";
+        StringWriter output = new StringWriter();
+
+        //when
+        QuoteFileSummary actual = quoteFilePipeline.run(new StringReader(input), output);
+
+        //then
+        String[] lines = output.toString().split("\n", -1);
+        assertEquals(new QuoteFileSummary(2, 1), actual);
+        assertEquals("CRAN,,,20,2020-07-02,,,,,0,,,OUT_OF_RANGE", lines[1]);
+        assertEquals(agreementRow(LADW, 3, 10, LocalDate.of(2020, 7, 2)), lines[2]);
+    }
+
+    private String agreementRow(Tool tool, int rentalDays, int discountPercent, LocalDate checkoutDate) {
+        String row = RentalAgreementRenderer.appendCsv(rentalAgreementService.checkout(tool, rentalDays, discountPercent, checkoutDate),
+                new StringBuilder()).toString();
+        return row.substring(0, row.length() - 1) + ",";
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo;
+
+import com.example.demo.model.HolidayRule;
+import com.example.demo.model.HolidayRuleType;
+import com.example.demo.model.RatePeriod;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateScheduleCompilerTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final Tool CHNS = new Tool("CHNS", "Chainsaw", "Stihl", new BigDecimal("1.49"), true, false, true);
+    private static final Tool JAKD = new Tool("JAKD", "Jackhammer", "DeWalt", new BigDecimal("2.99"), true, false, false);
+    private static final Tool TENT = new Tool("TENT", "Tent", "Coleman", new BigDecimal("5"), false, true, false);
+
+    @Test
+    public void preDiscountCharge_RandomOverlappingPeriods_MatchesSummingEveryDay() {
+        //given
+        Random random = new Random(25);
+        List<RatePeriod> ratePeriods = new ArrayList<>();
+        for (Tool tool : List.of(LADW, CHNS, JAKD, TENT)) {
+            for (int i = 0; i < 6; i++) {
+                LocalDate startDate = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(600));
+                ratePeriods.add(new RatePeriod("Period " + i, tool.getToolCode(), startDate, startDate.plusDays(random.nextInt(120)),
+                        BigDecimal.valueOf(random.nextInt(1000), 2),
+                        random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(10000), 3)));
+            }
+        }
+        HolidayCalendarIndex holidayCalendar = HolidayRuleCompiler.compile(List.of(
+                new HolidayRule("Independence Day", HolidayRuleType.FIXED_DATE, 7, 4, null, 0, true),
+                new HolidayRule("Labor Day", HolidayRuleType.NTH_WEEKDAY, 9, 0, DayOfWeek.MONDAY, 1, false),
+                new HolidayRule("Christmas", HolidayRuleType.FIXED_DATE, 12, 25, null, 0, false)));
+
+        //when
+        Map<String, RateSchedule> rateSchedules = RateScheduleCompiler.compile(ratePeriods);
+
+        //then
+        for (Tool tool : List.of(LADW, CHNS, JAKD, TENT)) {
+            RateSchedule rateSchedule = rateSchedules.get(tool.getToolCode());
+            for (int i = 0; i < 400; i++) {
+                long startDay = LocalDate.of(2019, 11, 1).toEpochDay() + random.nextInt(800);
+                long endDay = startDay + random.nextInt(i % 4 == 0 ? 400 : 20);
+                BigDecimal expected = sumEveryDay(ratePeriods, tool, holidayCalendar, startDay, endDay);
+                BigDecimal actual = rateSchedule.preDiscountCharge(tool, holidayCalendar, startDay, endDay);
+                assertEquals(0, expected.compareTo(actual), tool.getToolCode() + " " + LocalDate.ofEpochDay(startDay) + " " + (endDay - startDay));
+                assertEquals(3, actual.scale());
+            }
+        }
+    }
+
+    @Test
+    public void preDiscountCharge_PeakWeekendInsideSeason_LaterPeriodWins() {
+        //given
+        List<RatePeriod> ratePeriods = List.of(
+                new RatePeriod("Summer", "LADW", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 8, 31), new BigDecimal("2.49"), null),
+                new RatePeriod("Fourth of July weekend", "LADW", LocalDate.of(2024, 7, 4), LocalDate.of(2024, 7, 7),
+                        new BigDecimal("2.49"), new BigDecimal("3.99")));
+        RateSchedule rateSchedule = RateScheduleCompiler.compile(ratePeriods).get("LADW");
+        HolidayCalendarIndex holidayCalendar = HolidayRuleCompiler.compile(HolidayCheckerService.DEFAULT_HOLIDAY_RULES);
+
+        //when
+        BigDecimal actual = rateSchedule.preDiscountCharge(LADW, holidayCalendar, LocalDate.of(2024, 7, 1).toEpochDay(),
+                LocalDate.of(2024, 7, 15).toEpochDay());
+
+        //then
+        // 9 weekdays (Independence Day is not charged) and the 13th and 14th at 2.49, the 6th and 7th at 3.99
+        assertEquals(new BigDecimal("35.37"), actual);
+    }
+
+    @Test
+    public void compile_EndDateBeforeStartDate_ThrowsException() {
+        //given
+        RatePeriod ratePeriod = new RatePeriod("Winter", "LADW", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), BigDecimal.ONE, null);
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> RateScheduleCompiler.compile(List.of(ratePeriod)));
+
+        //then
+        assertEquals("Invalid rate period 'Winter': the end date must be on or after the start date.", exception.getMessage());
+    }
+
+    @Test
+    public void compile_NegativeWeekendCharge_ThrowsException() {
+        //given
+        RatePeriod ratePeriod = new RatePeriod("Refund", "LADW", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), BigDecimal.ONE,
+                new BigDecimal("-1.00"));
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> RateScheduleCompiler.compile(List.of(ratePeriod)));
+
+        //then
+        assertTrue(exception.getMessage().startsWith("Invalid rate period 'Refund'"));
+    }
+
+    private static BigDecimal sumEveryDay(List<RatePeriod> ratePeriods, Tool tool, HolidayCalendarIndex holidayCalendar, long startDay, long endDay) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (long day = startDay; day < endDay; day++) {
+            boolean weekend = HolidayCheckerService.dayOfWeekIndex(day) >= 5;
+            boolean charged = (weekend ? tool.isWeekendCharge() : tool.isWeekdayCharge())
+                    && (tool.isHolidayCharge() || !holidayCalendar.isHoliday(day));
+            if (!charged) {
+                continue;
+            }
+            BigDecimal rate = tool.getDailyCharge();
+            for (RatePeriod ratePeriod : ratePeriods) {
+                if (ratePeriod.getToolCode().equals(tool.getToolCode()) && ratePeriod.getStartDate().toEpochDay() <= day
+                        && day <= ratePeriod.getEndDate().toEpochDay()) {
+                    rate = weekend && ratePeriod.getWeekendDailyCharge() != null ? ratePeriod.getWeekendDailyCharge() : ratePeriod.getDailyCharge();
+                }
+            }
+            sum = sum.add(rate);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RentalAgreementColumnStoreTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final Tool CHNS = new Tool("CHNS", "Chainsaw", "Stihl", new BigDecimal("1.49"), true, false, true);
+    private static final Tool JAKD = new Tool("JAKD", "Jackhammer", "DeWalt", new BigDecimal("2.99"), true, false, false);
+    private static final Tool JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false);
+
+    private RentalAgreementService rentalAgreementService;
+
+    @BeforeEach
+    public void setup() {
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(LADW, CHNS, JAKD, JAKR)));
+    }
+
+    @Test
+    public void revenueByToolTypeAndMonth_RandomAgreementsAcrossChunks_MatchesObjectAggregation() {
+        //given
+        RentalAgreementColumnStore columnStore = new RentalAgreementColumnStore(7);
+        List<RentalAgreement> rentalAgreements = randomAgreements(500, columnStore);
+
+        //when
+        SortedMap<String, SortedMap<YearMonth, BigDecimal>> actual = columnStore.revenueByToolTypeAndMonth();
+
+        //then
+        SortedMap<String, SortedMap<YearMonth, BigDecimal>> expected = new TreeMap<>();
+        for (RentalAgreement rentalAgreement : rentalAgreements) {
+            expected.computeIfAbsent(rentalAgreement.getToolType(), type -> new TreeMap<>())
+                    .merge(YearMonth.from(rentalAgreement.getCheckoutDate()), rentalAgreement.getFinalCharge(), BigDecimal::add);
+        }
+        assertEquals(500, columnStore.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void totalDiscount_DateRange_SumsOnlyRowsInRange() {
+        //given
+        RentalAgreementColumnStore columnStore = new RentalAgreementColumnStore(7);
+        List<RentalAgreement> rentalAgreements = randomAgreements(500, columnStore);
+        LocalDate from = LocalDate.of(2016, 3, 1);
+        LocalDate to = LocalDate.of(2017, 3, 1);
+
+        //when
+        BigDecimal actualTotal = columnStore.totalDiscount();
+        BigDecimal actualInRange = columnStore.totalDiscount(from, to);
+
+        //then
+        BigDecimal expectedTotal = rentalAgreements.stream().map(RentalAgreement::getDiscountAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal expectedInRange = rentalAgreements.stream()
+                .filter(rentalAgreement -> !rentalAgreement.getCheckoutDate().isBefore(from) && rentalAgreement.getCheckoutDate().isBefore(to))
+                .map(RentalAgreement::getDiscountAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, expectedTotal.compareTo(actualTotal));
+        assertEquals(0, expectedInRange.compareTo(actualInRange));
+    }
+
+    @Test
+    public void revenueByToolTypeAndMonth_DateRange_ReportsOnlyMonthsInRange() {
+        //given
+        RentalAgreementColumnStore columnStore = new RentalAgreementColumnStore();
+        columnStore.append(rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2)));
+        columnStore.append(rentalAgreementService.priceCompact(JAKR, 6, 0, LocalDate.of(2015, 9, 3)));
+        columnStore.append(rentalAgreementService.priceCompact(JAKD, 6, 0, LocalDate.of(2015, 9, 3)));
+
+        //when
+        SortedMap<String, SortedMap<YearMonth, BigDecimal>> actual = columnStore.revenueByToolTypeAndMonth(LocalDate.of(2015, 1, 1),
+                LocalDate.of(2016, 1, 1));
+
+        //then
+        assertEquals(List.of("Jackhammer"), new ArrayList<>(actual.keySet()));
+        assertEquals(new BigDecimal("17.94"), actual.get("Jackhammer").get(YearMonth.of(2015, 9)));
+    }
+
+    @Test
+    public void revenueByToolTypeAndMonth_CheckoutsMillenniaApart_ReportsBothMonths() {
+        //given
+        RentalAgreementColumnStore columnStore = new RentalAgreementColumnStore();
+        columnStore.append(rentalAgreementService.priceCompact(LADW, 3, 10, LocalDate.of(1000, 7, 2)));
+        columnStore.append(rentalAgreementService.priceCompact(LADW, 3, 10, LocalDate.of(5000, 7, 2)));
+
+        //when
+        SortedMap<String, SortedMap<YearMonth, BigDecimal>> actual = columnStore.revenueByToolTypeAndMonth();
+
+        //then
+        assertEquals(List.of(YearMonth.of(1000, 7), YearMonth.of(5000, 7)), new ArrayList<>(actual.get("Ladder").keySet()));
+    }
+
+    @Test
+    public void append_FractionOfACent_ThrowsException() {
+        //given
+        RentalAgreementColumnStore columnStore = new RentalAgreementColumnStore();
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+        rentalAgreement.setDiscountAmount(new BigDecimal("0.398"));
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> columnStore.append(rentalAgreement));
+
+        //then
+        assertTrue(exception.getMessage().contains("Please store charges in whole cents."));
+        assertEquals(0, columnStore.size());
+    }
+
+    @Test
+    public void monthIndex_EveryDayAcrossCenturies_MatchesLocalDate() {
+        for (long epochDay = LocalDate.of(1600, 1, 1).toEpochDay(); epochDay < LocalDate.of(2400, 1, 1).toEpochDay(); epochDay++) {
+            LocalDate date = LocalDate.ofEpochDay(epochDay);
+            assertEquals(date.getYear() * 12L + date.getMonthValue() - 1, RentalAgreementColumnStore.monthIndex(epochDay));
+        }
+    }
+
+    private List<RentalAgreement> randomAgreements(int count, RentalAgreementColumnStore columnStore) {
+        Random random = new Random(20);
+        List<Tool> tools = List.of(LADW, CHNS, JAKD, JAKR);
+        List<RentalAgreement> rentalAgreements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Tool tool = tools.get(random.nextInt(tools.size()));
+            LocalDate checkoutDate = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(1500));
+            RentalAgreement rentalAgreement = rentalAgreementService.checkout(tool, 1 + random.nextInt(30), random.nextInt(101), checkoutDate);
+            rentalAgreements.add(rentalAgreement);
+            if (i % 2 == 0) {
+                columnStore.append(rentalAgreement);
+            } else {
+                columnStore.append(rentalAgreementService.priceCompact(tool, rentalAgreement.getRentalDays(),
+                        rentalAgreement.getDiscountPercent(), checkoutDate));
+            }
+        }
+        return rentalAgreements;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo;
+
+import com.example.demo.model.CompactRentalAgreement;
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RentalAgreementRendererTest {
+
+    private static final RentalAgreement CHAINSAW_AGREEMENT = new RentalAgreement("CHNS", "Chainsaw", "Stihl, \"Pro\"", 5,
+            LocalDate.of(2015, 7, 2), LocalDate.of(2015, 7, 7), new BigDecimal("1.49"), 3, new BigDecimal("4.47"), 25,
+            new BigDecimal("1.12"), new BigDecimal("3.35"));
+
+    @Test
+    public void appendMoney_RandomAmounts_MatchesDecimalFormat() {
+        //given
+        DecimalFormat decimalFormat = new DecimalFormat("$#,##0.00");
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            BigDecimal amount = BigDecimal.valueOf(random.nextLong() % 10_000_000_000L, random.nextInt(5));
+
+            //when
+            String actual = RentalAgreementRenderer.appendMoney(new StringBuilder(), amount).toString();
+
+            //then
+            assertEquals(decimalFormat.format(amount), actual, amount.toPlainString());
+        }
+    }
+
+    @Test
+    public void appendDate_EveryDayOfTwoCenturies_MatchesDateTimeFormatter() {
+        //given
+        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+        StringBuilder target = new StringBuilder();
+
+        for (LocalDate date = LocalDate.of(1950, 1, 1); date.isBefore(LocalDate.of(2150, 1, 1)); date = date.plusDays(1)) {
+            //when
+            target.setLength(0);
+            RentalAgreementRenderer.appendDate(target, date);
+
+            //then
+            assertEquals(date.format(dateTimeFormatter), target.toString());
+        }
+    }
+
+    @Test
+    public void appendCsv_RandomCompactAgreements_MatchesFullAgreement() {
+        //given
+        Random random = new Random(21);
+
+        for (int i = 0; i < 100000; i++) {
+            Tool tool = new Tool("CHNS", "Chainsaw", "Stihl, \"Pro\"", BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(5)), true, false, true);
+            CompactRentalAgreement rentalAgreement = new CompactRentalAgreement(tool, random.nextInt(4_000_000) - 800_000, 1 + random.nextInt(60),
+                    random.nextInt(60), random.nextInt(101), random.nextLong() % 10_000_000_000L, random.nextLong() % 1_000_000_000L);
+
+            //when
+            String actual = RentalAgreementRenderer.appendCsv(rentalAgreement, new StringBuilder()).toString();
+
+            //then
+            assertEquals(RentalAgreementRenderer.appendCsv(rentalAgreement.toRentalAgreement(), new StringBuilder()).toString(), actual);
+        }
+    }
+
+    @Test
+    public void appendCsv_FieldWithCommaAndQuotes_IsQuoted() {
+        //when
+        String actual = RentalAgreementRenderer.appendCsv(CHAINSAW_AGREEMENT, new StringBuilder()).toString();
+
+        //then
+        assertEquals("CHNS,Chainsaw,\"Stihl, \"\"Pro\"\"\",5,2015-07-02,2015-07-07,1.49,3,4.47,25,1.12,3.35\n", actual);
+    }
+
+    @Test
+    public void appendJson_FieldWithQuotes_IsEscaped() {
+        //when
+        String actual = RentalAgreementRenderer.appendJson(CHAINSAW_AGREEMENT, new StringBuilder()).toString();
+
+        //then
+        assertEquals("{\"toolCode\":\"CHNS\",\"toolType\":\"Chainsaw\",\"toolBrand\":\"Stihl, \\\"Pro\\\"\",\"rentalDays\":5,"
+                + "\"checkoutDate\":\"2015-07-02\",\"dueDate\":\"2015-07-07\",\"dailyRentalCharge\":1.49,\"chargeDays\":3,"
+                + "\"preDiscountCharge\":4.47,\"discountPercent\":25,\"discountAmount\":1.12,\"finalCharge\":3.35}\n", actual);
+    }
+
+    @Test
+    public void channelSink_ManyAgreements_WritesSameBytesAsRender() throws IOException {
+        //given
+        Path file = Files.createTempFile("agreements", ".txt");
+        StringBuilder expected = new StringBuilder();
+
+        //when
+        try (ChannelRentalAgreementSink sink = ChannelRentalAgreementSink.open(file, RentalAgreementFormat.TEXT)) {
+            for (int i = 0; i < 5000; i++) {
+                sink.accept(CHAINSAW_AGREEMENT);
+                expected.append(RentalAgreementRenderer.render(CHAINSAW_AGREEMENT));
+            }
+        }
+
+        //then
+        try {
+            assertEquals(expected.toString(), Files.readString(file, StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RentalAgreementServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int CHECKOUTS_PER_THREAD = 250_000;
+    private static final int DISTINCT_INPUTS = 2_000;
+
+    private static final List<Tool> TOOLS = List.of(
+            new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false),
+            new Tool("CHNS", "Chainsaw", "Stihl", new BigDecimal("1.49"), true, false, true),
+            new Tool("JAKD", "Jackhammer", "DeWalt", new BigDecimal("2.99"), true, false, false),
+            new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false));
+
+    @Test
+    public void checkout_ManyThreadsSharingOneService_MatchesSingleThreadedResults() throws Exception {
+        //given
+        Random random = new Random(823);
+        List<Object[]> inputs = new ArrayList<>();
+        for (int i = 0; i < DISTINCT_INPUTS; i++) {
+            inputs.add(new Object[]{TOOLS.get(random.nextInt(TOOLS.size())), 1 + random.nextInt(3650), random.nextInt(101),
+                    LocalDate.of(2000, 1, 1).plusDays(random.nextInt(11000))});
+        }
+
+        RentalAgreementService referenceService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(TOOLS));
+        List<RentalAgreement> expected = new ArrayList<>();
+        for (Object[] input : inputs) {
+            expected.add(referenceService.checkout((Tool) input[0], (int) input[1], (int) input[2], (LocalDate) input[3]));
+        }
+
+        HolidayCheckerService sharedHolidayChecker = new HolidayCheckerService();
+        ToolCatalog sharedCatalog = new ToolCatalog(TOOLS);
+        LongAdder acceptedAgreements = new LongAdder();
+        RentalAgreementService sharedService = new RentalAgreementService(sharedHolidayChecker, sharedCatalog,
+                rentalAgreement -> acceptedAgreements.increment(), PricingMode.FIXED_POINT,
+                new QuoteCache(512, sharedCatalog, sharedHolidayChecker), null, CheckoutMetrics.DISABLED, null, null);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder mismatches = new LongAdder();
+
+        //when
+        List<Future<?>> workers = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            int seed = thread;
+            workers.add(executor.submit(() -> {
+                Random threadRandom = new Random(seed);
+                start.await();
+                for (int i = 0; i < CHECKOUTS_PER_THREAD; i++) {
+                    int index = threadRandom.nextInt(DISTINCT_INPUTS);
+                    Object[] input = inputs.get(index);
+                    RentalAgreement actual = sharedService.checkout((Tool) input[0], (int) input[1], (int) input[2], (LocalDate) input[3]);
+                    if (!expected.get(index).equals(actual)) {
+                        mismatches.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        // recompiling identical rules swaps the holiday index and invalidates the quote cache under load
+        Future<?> ruleSwapper = executor.submit(() -> {
+            start.await();
+            while (running.get()) {
+                sharedHolidayChecker.useHolidayRules(HolidayCheckerService.DEFAULT_HOLIDAY_RULES);
+                Thread.sleep(5);
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(5, TimeUnit.MINUTES);
+        }
+        running.set(false);
+        ruleSwapper.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        //then
+        assertEquals(0, mismatches.sum());
+        assertEquals((long) THREADS * CHECKOUTS_PER_THREAD, acceptedAgreements.sum());
+    }
+}
@@ -1,20 +1,33 @@
 package com.example.demo;
 
+import com.example.demo.model.CheckoutError;
+import com.example.demo.model.CheckoutRequest;
+import com.example.demo.model.CheckoutResult;
+import com.example.demo.model.CompactRentalAgreement;
+import com.example.demo.model.HolidayRule;
+import com.example.demo.model.HolidayRuleType;
+import com.example.demo.model.Promotion;
+import com.example.demo.model.RatePeriod;
 import com.example.demo.model.RentalAgreement;
 import com.example.demo.model.Tool;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class RentalAgreementServiceTest {
 
-    @Autowired
     RentalAgreementService rentalAgreementService;
 
     private static Tool LADW;
@@ -23,11 +36,12 @@ public class RentalAgreementServiceTest {
     private static Tool JAKR;
 
     @BeforeEach
-    private void setup() {
-        LADW = new Tool("LADW", "Ladder", "Werner", 1.99, true, true, false);
-        CHNS = new Tool("CHNS", "Chainsaw", "Stihl", 1.49, true, false, true);
-        JAKD = new Tool("JAKD", "Jackhammer", "DeWalt", 2.99, true, false, false);
-        JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", 2.99, true, false, false);
+    public void setup() {
+        LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+        CHNS = new Tool("CHNS", "Chainsaw", "Stihl", new BigDecimal("1.49"), true, false, true);
+        JAKD = new Tool("JAKD", "Jackhammer", "DeWalt", new BigDecimal("2.99"), true, false, false);
+        JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false);
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(LADW, CHNS, JAKD, JAKR)));
     }
 
     //Test 1
@@ -61,7 +75,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedChargeDays = 2;
         LocalDate expectedDueDate = LocalDate.of(2020, 7, 5);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(BigDecimal.valueOf(LADW.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(LADW.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -89,7 +103,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedChargeDays = 3;
         LocalDate expectedDueDate = LocalDate.of(2015, 7, 7);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(BigDecimal.valueOf(CHNS.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(CHNS.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -117,7 +131,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedChargeDays = 3;
         LocalDate expectedDueDate = LocalDate.of(2015, 9, 9);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(BigDecimal.valueOf(JAKD.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(JAKD.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -145,7 +159,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedChargeDays = 6;
         LocalDate expectedDueDate = LocalDate.of(2015, 7, 11);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(BigDecimal.valueOf(JAKR.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(JAKR.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -173,7 +187,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedChargeDays = 1;
         LocalDate expectedDueDate = LocalDate.of(2020, 7, 6);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(BigDecimal.valueOf(JAKR.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(JAKR.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -220,7 +234,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedZeroChargeDays = 0;
         LocalDate expectedDueDate = LocalDate.of(2023, 8, 7);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedZeroChargeDays).multiply(BigDecimal.valueOf(CHNS.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedZeroChargeDays).multiply(CHNS.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -248,7 +262,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedZeroChargeDays = 0;
         LocalDate expectedDueDate = LocalDate.of(2023, 7, 5);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedZeroChargeDays).multiply(BigDecimal.valueOf(JAKD.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedZeroChargeDays).multiply(JAKD.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -276,7 +290,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedZeroChargeDays = 0;
         LocalDate expectedDueDate = LocalDate.of(2023, 9, 5);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedZeroChargeDays).multiply(BigDecimal.valueOf(JAKD.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedZeroChargeDays).multiply(JAKD.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -304,7 +318,7 @@ public class RentalAgreementServiceTest {
         int expectedRentalDays = rentalDays;
         int expectedChargeDays = 726;
         LocalDate expectedDueDate = LocalDate.of(2022, 7, 2);
-        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(BigDecimal.valueOf(LADW.getDailyCharge()));
+        BigDecimal expectedPreDiscountCharge = BigDecimal.valueOf(expectedChargeDays).multiply(LADW.getDailyCharge());
         BigDecimal expectedDiscountAmount = expectedPreDiscountCharge.multiply(BigDecimal.valueOf(discountPercent)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP);
         BigDecimal expectedFinalCharge = expectedPreDiscountCharge.subtract(expectedDiscountAmount).setScale(2, RoundingMode.HALF_UP);
 
@@ -387,4 +401,479 @@ public class RentalAgreementServiceTest {
         //then
         assertEquals(expectedChargeDays, actualChargeDays);
     }
+
+    //Extra Test 9
+    @Test
+    public void calculateChargeDays_JAKD_TenYearRental_NoWeekendOrHolidayCharge() {
+        //given input
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 1);
+        LocalDate dueDate = LocalDate.of(2025, 6, 28);
+
+        //expected output
+        int expectedChargeDays = 2588;
+
+        //when
+        int actualChargeDays = rentalAgreementService.calculateChargeDays(JAKD, checkoutDate, dueDate);
+
+        //then
+        assertEquals(expectedChargeDays, actualChargeDays);
+    }
+
+    //Extra Test 10
+    @Test
+    public void calculateChargeDays_LADW_TenYearRental_NoHolidayCharge() {
+        //given input
+        LocalDate checkoutDate = LocalDate.of(2015, 7, 1);
+        LocalDate dueDate = LocalDate.of(2025, 6, 28);
+
+        //expected output
+        int expectedChargeDays = 3630;
+
+        //when
+        int actualChargeDays = rentalAgreementService.calculateChargeDays(LADW, checkoutDate, dueDate);
+
+        //then
+        assertEquals(expectedChargeDays, actualChargeDays);
+    }
+
+    //Batch Test 1
+    @Test
+    public void checkoutBatch_MixedValidAndInvalidRequests_ReturnsResultsInRequestOrder() {
+        //given
+        List<CheckoutRequest> checkoutRequests = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            checkoutRequests.add(new CheckoutRequest(JAKR, 9, 0, LocalDate.of(2015, 7, 2)));
+            checkoutRequests.add(new CheckoutRequest(JAKD, 5, 101, LocalDate.of(2015, 9, 3)));
+        }
+
+        //when
+        List<CheckoutResult> actualResults = rentalAgreementService.checkoutBatch(checkoutRequests);
+
+        //then
+        assertEquals(checkoutRequests.size(), actualResults.size());
+        for (int i = 0; i < actualResults.size(); i += 2) {
+            CheckoutResult validResult = actualResults.get(i);
+            CheckoutResult invalidResult = actualResults.get(i + 1);
+            assertTrue(validResult.isValid());
+            assertEquals(6, validResult.getRentalAgreement().getChargeDays());
+            assertEquals(new BigDecimal("17.94"), validResult.getRentalAgreement().getFinalCharge());
+            assertFalse(invalidResult.isValid());
+            assertNull(invalidResult.getRentalAgreement());
+            assertEquals("Please enter a valid discount percentage. The discount percentage must be between 0% and 100%.", invalidResult.getErrorMessage());
+        }
+    }
+
+    //Batch Test 2
+    @Test
+    public void checkoutBatch_SameInputAsCheckout_ProducesEqualAgreement() {
+        //given
+        CheckoutRequest checkoutRequest = new CheckoutRequest(LADW, 730, 25, LocalDate.of(2020, 7, 2));
+
+        //when
+        RentalAgreement expectedRentalAgreement = rentalAgreementService.checkout(LADW, 730, 25, LocalDate.of(2020, 7, 2));
+        List<CheckoutResult> actualResults = rentalAgreementService.checkoutBatch(Stream.of(checkoutRequest));
+
+        //then
+        assertEquals(1, actualResults.size());
+        assertEquals(expectedRentalAgreement, actualResults.get(0).getRentalAgreement());
+    }
+
+    //Batch Test 3
+    @Test
+    public void checkoutBatch_MissingToolOrCheckoutDate_ReturnsErrorsWithoutAbortingBatch() {
+        //given
+        List<CheckoutRequest> checkoutRequests = List.of(new CheckoutRequest(null, 9, 0, LocalDate.of(2015, 7, 2)),
+                new CheckoutRequest(JAKR, 9, 0, null), new CheckoutRequest(JAKR, 9, 0, LocalDate.of(2015, 7, 2)));
+
+        //when
+        List<CheckoutResult> actualResults = rentalAgreementService.checkoutBatch(checkoutRequests);
+
+        //then
+        assertEquals(CheckoutError.UNKNOWN_TOOL, actualResults.get(0).getError());
+        assertEquals(CheckoutError.MISSING_CHECKOUT_DATE, actualResults.get(1).getError());
+        assertTrue(actualResults.get(2).isValid());
+    }
+
+    //Catalog Test 1
+    @Test
+    public void checkout_ByToolCode_UsesCatalogTool() {
+        //given
+        RentalAgreementService catalogService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(JAKR)));
+
+        //when
+        RentalAgreement actualRentalAgreement = catalogService.checkout("JAKR", 9, 0, LocalDate.of(2015, 7, 2));
+
+        //then
+        assertEquals("Ridgid", actualRentalAgreement.getToolBrand());
+        assertEquals(6, actualRentalAgreement.getChargeDays());
+        assertThrows(IllegalArgumentException.class, () -> catalogService.checkout("LADW", 9, 0, LocalDate.of(2015, 7, 2)));
+    }
+
+    //Cheapest Window Test 1
+    @Test
+    public void findCheapestWindows_AcrossHolidays_MatchesPricingEveryCandidate() {
+        //given
+        LocalDate earliestCheckoutDate = LocalDate.of(2020, 6, 1);
+        LocalDate latestCheckoutDate = LocalDate.of(2020, 9, 30);
+        List<RentalAgreement> expected = new ArrayList<>();
+        for (LocalDate date = earliestCheckoutDate; !date.isAfter(latestCheckoutDate); date = date.plusDays(1)) {
+            expected.add(rentalAgreementService.checkout(JAKD, 5, 10, date));
+        }
+        expected.sort((first, second) -> first.getFinalCharge().compareTo(second.getFinalCharge()) != 0
+                ? first.getFinalCharge().compareTo(second.getFinalCharge())
+                : first.getCheckoutDate().compareTo(second.getCheckoutDate()));
+
+        //when
+        List<RentalAgreement> actual = rentalAgreementService.findCheapestWindows(JAKD, 5, 10, earliestCheckoutDate, latestCheckoutDate, 10);
+
+        //then
+        assertEquals(expected.subList(0, 10), actual);
+        assertEquals(LocalDate.of(2020, 7, 1), actual.get(0).getCheckoutDate());
+        assertEquals(2, actual.get(0).getChargeDays());
+    }
+
+    //Cheapest Window Test 2
+    @Test
+    public void findCheapestWindows_LatestBeforeEarliest_ThrowsException() {
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> rentalAgreementService.findCheapestWindows(
+                LADW, 5, 0, LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 1), 3));
+
+        //then
+        assertEquals("Please choose a latest checkout date on or after the earliest checkout date.", exception.getMessage());
+    }
+
+    //Extension Test 1
+    @Test
+    public void extend_AcrossLaborDay_EqualsCheckoutOfWholePeriod() {
+        //given
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(JAKD, 4, 15, LocalDate.of(2015, 9, 1));
+
+        //when
+        RentalAgreement actualRentalAgreement = rentalAgreementService.extend(rentalAgreement, 10);
+
+        //then
+        RentalAgreement expectedRentalAgreement = rentalAgreementService.checkout(JAKD, 14, 15, LocalDate.of(2015, 9, 1));
+        assertEquals(expectedRentalAgreement, actualRentalAgreement);
+        assertEquals(LocalDate.of(2015, 9, 5), rentalAgreement.getDueDate());
+    }
+
+    //Extension Test 2
+    @Test
+    public void extend_ManyRandomRentals_EqualsCheckoutOfWholePeriod() {
+        //given
+        Random random = new Random(16);
+        List<Tool> tools = List.of(LADW, CHNS, JAKD, JAKR);
+
+        for (int i = 0; i < 2000; i++) {
+            Tool tool = tools.get(random.nextInt(tools.size()));
+            int rentalDays = 1 + random.nextInt(400);
+            int extraDays = 1 + random.nextInt(60);
+            int discountPercent = random.nextInt(101);
+            LocalDate checkoutDate = LocalDate.of(2010, 1, 1).plusDays(random.nextInt(5000));
+
+            //when
+            RentalAgreement actualRentalAgreement = rentalAgreementService.extend(
+                    rentalAgreementService.checkout(tool, rentalDays, discountPercent, checkoutDate), extraDays);
+
+            //then
+            assertEquals(rentalAgreementService.checkout(tool, rentalDays + extraDays, discountPercent, checkoutDate), actualRentalAgreement);
+        }
+    }
+
+    //Extension Test 3
+    @Test
+    public void extend_WithInvalidExtraDays_ThrowsException() {
+        //given
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> rentalAgreementService.extend(rentalAgreement, 0));
+
+        //then
+        assertEquals("Please enter a valid extension day count. The extension day count must be 1 or greater.", exception.getMessage());
+    }
+
+    //Validation Test 1
+    @Test
+    public void checkout_WithInvalidRentalDays_ThrowsStacklessValidationException() {
+        //when
+        CheckoutValidationException exception = assertThrows(CheckoutValidationException.class,
+                () -> rentalAgreementService.checkout(LADW, 0, 10, LocalDate.of(2020, 7, 2)));
+
+        //then
+        assertEquals(CheckoutError.INVALID_RENTAL_DAYS, exception.getError());
+        assertEquals(CheckoutError.INVALID_RENTAL_DAYS.getMessage(), exception.getMessage());
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    //Validation Test 2
+    @Test
+    public void validate_EachRule_ReturnsItsErrorCode() {
+        //when / then
+        assertNull(RentalAgreementService.validate(1, 0));
+        assertNull(RentalAgreementService.validate(5, 100));
+        assertEquals(CheckoutError.INVALID_RENTAL_DAYS, RentalAgreementService.validate(0, 10));
+        assertEquals(CheckoutError.INVALID_RENTAL_DAYS, RentalAgreementService.validate(0, 101));
+        assertEquals(CheckoutError.INVALID_DISCOUNT, RentalAgreementService.validate(5, -1));
+        assertEquals(CheckoutError.INVALID_DISCOUNT, RentalAgreementService.validate(5, 101));
+    }
+
+    //Compact Test 1
+    @Test
+    public void priceCompact_RandomRentals_MatchesCheckout() {
+        //given
+        Random random = new Random(19);
+        List<Tool> tools = List.of(LADW, CHNS, JAKD, JAKR);
+
+        for (int i = 0; i < 1000; i++) {
+            Tool tool = tools.get(random.nextInt(tools.size()));
+            int rentalDays = 1 + random.nextInt(400);
+            int discountPercent = random.nextInt(101);
+            LocalDate checkoutDate = LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3000));
+
+            //when
+            CompactRentalAgreement actual = rentalAgreementService.priceCompact(tool, rentalDays, discountPercent, checkoutDate);
+
+            //then
+            RentalAgreement expected = rentalAgreementService.checkout(tool, rentalDays, discountPercent, checkoutDate);
+            assertEquals(expected, actual.toRentalAgreement());
+            assertSame(tool, actual.tool());
+        }
+    }
+
+    //Compact Test 2
+    @Test
+    public void of_RentalAgreement_RoundTrips() {
+        //given
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(JAKR, 9, 0, LocalDate.of(2015, 7, 2));
+
+        //when
+        CompactRentalAgreement actual = CompactRentalAgreement.of(rentalAgreement, JAKR);
+
+        //then
+        assertEquals(LocalDate.of(2015, 7, 11), actual.dueDate());
+        assertEquals(1794, actual.finalChargeUnscaled());
+        assertEquals(new BigDecimal("17.94"), actual.finalCharge());
+        assertEquals(rentalAgreement, actual.toRentalAgreement());
+    }
+
+    //Compact Test 3
+    @Test
+    public void of_DifferentTool_ThrowsException() {
+        //given
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(JAKR, 9, 0, LocalDate.of(2015, 7, 2));
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> CompactRentalAgreement.of(rentalAgreement, LADW));
+
+        //then
+        assertEquals("Please provide tool JAKR for this rental agreement.", exception.getMessage());
+    }
+
+    //Promotion Test 1
+    @Test
+    public void checkout_LoyaltyCodeAndLongRentalTier_StacksWithManualDiscount() {
+        //given
+        RentalAgreementService promotionService = promotionService(List.of(
+                new Promotion("Week or longer", 10, null, null, 7, 0, null, null),
+                new Promotion("Gold members", 5, "Jackhammer", "GOLD", 0, 0, null, null)));
+
+        //when
+        RentalAgreement actual = promotionService.checkout(JAKR, 9, 20, LocalDate.of(2015, 7, 2), "GOLD");
+        RentalAgreement actualWithoutCode = promotionService.checkout(JAKR, 9, 20, LocalDate.of(2015, 7, 2));
+
+        //then
+        assertEquals(35, actual.getDiscountPercent());
+        assertEquals(new BigDecimal("17.94"), actual.getPreDiscountCharge());
+        assertEquals(new BigDecimal("6.28"), actual.getDiscountAmount());
+        assertEquals(new BigDecimal("11.66"), actual.getFinalCharge());
+        assertEquals(30, actualWithoutCode.getDiscountPercent());
+    }
+
+    //Promotion Test 2
+    @Test
+    public void checkout_PromotionsAboveOneHundredPercent_CapsAtFullDiscount() {
+        //given
+        RentalAgreementService promotionService = promotionService(List.of(new Promotion("Clearance", 60, "Ladder", null, 0, 0, null, null)));
+
+        //when
+        RentalAgreement actual = promotionService.checkout(LADW, 3, 50, LocalDate.of(2020, 7, 2));
+
+        //then
+        assertEquals(100, actual.getDiscountPercent());
+        assertEquals(0, actual.getFinalCharge().signum());
+    }
+
+    //Promotion Test 3
+    @Test
+    public void findCheapestWindows_CampaignDuringRange_MatchesPricingEveryCandidate() {
+        //given
+        RentalAgreementService promotionService = promotionService(List.of(
+                new Promotion("Summer", 40, "Jackhammer", null, 0, 0, LocalDate.of(2015, 7, 10), LocalDate.of(2015, 7, 12))));
+        LocalDate earliestCheckoutDate = LocalDate.of(2015, 6, 20);
+        LocalDate latestCheckoutDate = LocalDate.of(2015, 7, 31);
+
+        //when
+        List<RentalAgreement> actual = promotionService.findCheapestWindows(JAKD, 5, 10, earliestCheckoutDate, latestCheckoutDate, 5);
+
+        //then
+        List<RentalAgreement> expected = new ArrayList<>();
+        for (LocalDate date = earliestCheckoutDate; !date.isAfter(latestCheckoutDate); date = date.plusDays(1)) {
+            expected.add(promotionService.priceCompact(JAKD, 5, 10, date).toRentalAgreement());
+        }
+        expected.sort(Comparator.comparing(RentalAgreement::getFinalCharge).thenComparing(RentalAgreement::getCheckoutDate));
+        assertEquals(expected.subList(0, 5), actual);
+        assertEquals(50, actual.get(0).getDiscountPercent());
+    }
+
+    private RentalAgreementService promotionService(List<Promotion> promotions) {
+        ToolCatalog toolCatalog = new ToolCatalog(List.of(LADW, CHNS, JAKD, JAKR));
+        return new RentalAgreementService(new HolidayCheckerService(), toolCatalog, RentalAgreementSink.NO_OP, PricingMode.BIG_DECIMAL,
+                null, null, CheckoutMetrics.DISABLED, new PromotionService(promotions), null);
+    }
+
+    //Regional Holiday Test 1
+    @Test
+    public void checkout_StoreInRegionWithExtraHoliday_DoesNotChargeRegionalHoliday() {
+        //given
+        HolidayCheckerService holidayCheckerService = new HolidayCheckerService();
+        holidayCheckerService.useHolidayCalendars(HolidayCheckerService.DEFAULT_HOLIDAY_RULES,
+                Map.of("MA", List.of(new HolidayRule("Patriots' Day", HolidayRuleType.NTH_WEEKDAY, 4, 0, DayOfWeek.MONDAY, 3, false))),
+                Map.of("boston", "MA"));
+        RentalAgreementService regionalService = new RentalAgreementService(holidayCheckerService, new ToolCatalog(List.of(JAKR)));
+        LocalDate checkoutDate = LocalDate.of(2024, 4, 15);
+
+        //when
+        RentalAgreement actualBoston = regionalService.checkout(new CheckoutRequest(JAKR, 5, 0, checkoutDate, null, "boston"));
+        RentalAgreement actualDefault = regionalService.checkout(new CheckoutRequest(JAKR, 5, 0, checkoutDate));
+
+        //then
+        assertEquals(4, actualBoston.getChargeDays());
+        assertEquals(5, actualDefault.getChargeDays());
+    }
+
+    //Regional Holiday Test 3
+    @Test
+    public void extend_AgreementFromRegionalStore_UsesStoreCalendar() {
+        //given
+        HolidayCheckerService holidayCheckerService = new HolidayCheckerService();
+        holidayCheckerService.useHolidayCalendars(HolidayCheckerService.DEFAULT_HOLIDAY_RULES,
+                Map.of("MA", List.of(new HolidayRule("Patriots' Day", HolidayRuleType.NTH_WEEKDAY, 4, 0, DayOfWeek.MONDAY, 3, false))),
+                Map.of("boston", "MA"));
+        RentalAgreementService regionalService = new RentalAgreementService(holidayCheckerService, new ToolCatalog(List.of(JAKR)));
+        RentalAgreement rentalAgreement = regionalService.checkout(new CheckoutRequest(JAKR, 1, 0, LocalDate.of(2024, 4, 12), null, "boston"));
+
+        //when
+        RentalAgreement actualExtended = regionalService.extend(rentalAgreement, 4);
+        RentalAgreement actualDefault = regionalService.extend(rentalAgreement, 4, null);
+
+        //then
+        assertEquals("boston", rentalAgreement.getStoreId());
+        assertEquals("boston", actualExtended.getStoreId());
+        assertEquals(2, actualExtended.getChargeDays());
+        assertEquals(3, actualDefault.getChargeDays());
+    }
+
+    //Regional Holiday Test 2
+    @Test
+    public void checkout_UnknownStore_ThrowsException() {
+        //given
+        CheckoutRequest checkoutRequest = new CheckoutRequest(JAKR, 5, 0, LocalDate.of(2024, 4, 15), null, "nowhere");
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> rentalAgreementService.checkout(checkoutRequest));
+        List<CheckoutResult> actualResults = rentalAgreementService.checkoutBatch(List.of(checkoutRequest));
+
+        //then
+        assertEquals(CheckoutError.UNKNOWN_STORE.getMessage(), exception.getMessage());
+        assertEquals(CheckoutError.UNKNOWN_STORE, actualResults.get(0).getError());
+    }
+
+    //Rate Schedule Test 1
+    @Test
+    public void checkout_RentalAcrossRatePeriods_SumsScheduledRates() {
+        //given
+        RentalAgreementService scheduledService = rateScheduleService(List.of(
+                new RatePeriod("Spring", "LADW", LocalDate.of(2020, 3, 1), LocalDate.of(2020, 5, 31), new BigDecimal("1.49"), null),
+                new RatePeriod("Summer", "LADW", LocalDate.of(2020, 6, 1), LocalDate.of(2020, 8, 31), new BigDecimal("2.49"),
+                        new BigDecimal("2.99"))));
+
+        //when
+        RentalAgreement actual = scheduledService.checkout(LADW, 90, 10, LocalDate.of(2020, 5, 1));
+
+        //then
+        // May: 31 days at 1.49; June 1 to July 29: 43 weekdays less Independence Day (observed July 3) at 2.49 and 16 weekend days at 2.99
+        BigDecimal expectedPreDiscountCharge = new BigDecimal("1.49").multiply(BigDecimal.valueOf(31))
+                .add(new BigDecimal("2.49").multiply(BigDecimal.valueOf(42)))
+                .add(new BigDecimal("2.99").multiply(BigDecimal.valueOf(16)));
+        assertEquals(89, actual.getChargeDays());
+        assertEquals(expectedPreDiscountCharge, actual.getPreDiscountCharge());
+        assertEquals(expectedPreDiscountCharge.multiply(BigDecimal.valueOf(10)).divide(BigDecimal.valueOf(100), RoundingMode.HALF_UP),
+                actual.getDiscountAmount());
+        assertEquals(new BigDecimal("1.99"), actual.getDailyRentalCharge());
+    }
+
+    //Rate Schedule Test 2
+    @Test
+    public void priceCompactAndExtend_ScheduledTool_MatchCheckout() {
+        //given
+        RentalAgreementService scheduledService = rateScheduleService(List.of(
+                new RatePeriod("Peak", "JAKD", LocalDate.of(2015, 7, 1), LocalDate.of(2015, 7, 10), new BigDecimal("4.99"), null)));
+        RentalAgreement rentalAgreement = scheduledService.checkout(JAKD, 5, 25, LocalDate.of(2015, 6, 28));
+
+        //when
+        CompactRentalAgreement actualCompact = scheduledService.priceCompact(JAKD, 5, 25, LocalDate.of(2015, 6, 28));
+        RentalAgreement actualExtended = scheduledService.extend(rentalAgreement, 10);
+
+        //then
+        assertEquals(rentalAgreement, actualCompact.toRentalAgreement());
+        assertEquals(scheduledService.checkout(JAKD, 15, 25, LocalDate.of(2015, 6, 28)), actualExtended);
+    }
+
+    //Rate Schedule Test 3
+    @Test
+    public void findCheapestWindows_ScheduledTool_MatchesPricingEveryCandidate() {
+        //given
+        RentalAgreementService scheduledService = rateScheduleService(List.of(
+                new RatePeriod("Off season", "JAKD", LocalDate.of(2015, 7, 13), LocalDate.of(2015, 7, 17), new BigDecimal("0.99"), null)));
+        LocalDate earliestCheckoutDate = LocalDate.of(2015, 6, 20);
+        LocalDate latestCheckoutDate = LocalDate.of(2015, 7, 31);
+
+        //when
+        List<RentalAgreement> actual = scheduledService.findCheapestWindows(JAKD, 5, 10, earliestCheckoutDate, latestCheckoutDate, 5);
+
+        //then
+        List<RentalAgreement> expected = new ArrayList<>();
+        for (LocalDate date = earliestCheckoutDate; !date.isAfter(latestCheckoutDate); date = date.plusDays(1)) {
+            expected.add(scheduledService.priceCompact(JAKD, 5, 10, date).toRentalAgreement());
+        }
+        expected.sort(Comparator.comparing(RentalAgreement::getFinalCharge).thenComparing(RentalAgreement::getCheckoutDate));
+        assertEquals(expected.subList(0, 5), actual);
+        // the weekend before the off season is free for a jackhammer, so its three off-season weekdays are cheapest
+        assertEquals(LocalDate.of(2015, 7, 11), actual.get(0).getCheckoutDate());
+    }
+
+    //Rate Schedule Test 4
+    @Test
+    public void extend_ScheduleAddedAfterCheckout_KeepsAgreedChargeAndPricesOnlyExtraDays() {
+        //given
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(LADW, 3, 0, LocalDate.of(2020, 7, 2));
+        RentalAgreementService scheduledService = rateScheduleService(List.of(
+                new RatePeriod("Summer", "LADW", LocalDate.of(2020, 6, 1), LocalDate.of(2020, 8, 31), new BigDecimal("2.49"), null)));
+
+        //when
+        RentalAgreement actualExtended = scheduledService.extend(rentalAgreement, 4);
+
+        //then
+        // July 6 to 9 are four weekdays at the scheduled 2.49
+        assertEquals(rentalAgreement.getPreDiscountCharge().add(new BigDecimal("9.96")), actualExtended.getPreDiscountCharge());
+        assertEquals(actualExtended.getPreDiscountCharge(), actualExtended.getFinalCharge());
+    }
+
+    private RentalAgreementService rateScheduleService(List<RatePeriod> ratePeriods) {
+        ToolCatalog toolCatalog = new ToolCatalog(List.of(LADW, CHNS, JAKD, JAKR));
+        return new RentalAgreementService(new HolidayCheckerService(), toolCatalog, RentalAgreementSink.NO_OP, PricingMode.FIXED_POINT,
+                null, null, CheckoutMetrics.DISABLED, null, new RateScheduleService(ratePeriods));
+    }
 }
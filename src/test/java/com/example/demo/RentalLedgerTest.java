@@ -0,0 +1,190 @@
+package com.example.demo;
+
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RentalLedgerTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final Tool JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false);
+
+    private RentalAgreementService rentalAgreementService;
+    private Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        rentalAgreementService = new RentalAgreementService(new HolidayCheckerService(), new ToolCatalog(List.of(LADW, JAKR)));
+        directory = Files.createTempDirectory("ledger");
+    }
+
+    @Test
+    public void find_AppendedAgreements_ReturnsMatchesByToolAndDate() throws IOException {
+        //given
+        RentalAgreement july = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+        RentalAgreement september = rentalAgreementService.checkout(LADW, 5, 0, LocalDate.of(2020, 9, 3));
+        RentalAgreement jackhammer = rentalAgreementService.checkout(JAKR, 6, 0, LocalDate.of(2020, 7, 2));
+
+        //when
+        List<RentalAgreement> actual;
+        try (RentalLedger ledger = RentalLedger.open(directory, RentalLedger.DEFAULT_SEGMENT_SIZE)) {
+            ledger.append(july);
+            ledger.append(september);
+            ledger.append(jackhammer);
+            actual = ledger.find("LADW", LocalDate.of(2020, 7, 1), LocalDate.of(2020, 8, 1));
+        }
+
+        //then
+        assertEquals(List.of(july), actual);
+    }
+
+    @Test
+    public void open_ExistingSegments_RecoversRecordsAcrossRollover() throws IOException {
+        //given
+        List<RentalAgreement> expected = new ArrayList<>();
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            for (int i = 0; i < 100; i++) {
+                RentalAgreement rentalAgreement = rentalAgreementService.checkout(i % 2 == 0 ? LADW : JAKR, 1 + i, i, LocalDate.of(2020, 1, 1).plusDays(i));
+                ledger.append(rentalAgreement);
+                expected.add(rentalAgreement);
+            }
+        }
+
+        //when
+        List<RentalAgreement> actual = new ArrayList<>();
+        long actualSize;
+        List<RentalAgreement> actualJackhammers;
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            ledger.forEach(actual::add);
+            actualSize = ledger.size();
+            actualJackhammers = ledger.find("JAKR", LocalDate.MIN, LocalDate.MAX);
+        }
+
+        //then
+        assertTrue(segmentCount() > 1);
+        assertEquals(expected, actual);
+        assertEquals(100, actualSize);
+        assertEquals(50, actualJackhammers.size());
+    }
+
+    @Test
+    public void open_TornLastRecord_DropsItAndKeepsAppending() throws IOException {
+        //given
+        RentalAgreement first = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+        RentalAgreement torn = rentalAgreementService.checkout(JAKR, 6, 0, LocalDate.of(2015, 9, 3));
+        long tornAddress;
+        try (RentalLedger ledger = RentalLedger.open(directory, RentalLedger.DEFAULT_SEGMENT_SIZE)) {
+            ledger.append(first);
+            tornAddress = ledger.append(torn);
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("ledger-00000000.seg"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), (int) tornAddress + 20);
+        }
+
+        //when
+        List<RentalAgreement> actual = new ArrayList<>();
+        try (RentalLedger ledger = RentalLedger.open(directory, RentalLedger.DEFAULT_SEGMENT_SIZE)) {
+            ledger.append(first);
+            ledger.forEach(actual::add);
+        }
+
+        //then
+        assertEquals(List.of(first, first), actual);
+    }
+
+    @Test
+    public void open_BlankLastSegment_StartsItAfreshAndKeepsEarlierRecords() throws IOException {
+        //given
+        RentalAgreement first = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+        RentalAgreement second = rentalAgreementService.checkout(JAKR, 6, 0, LocalDate.of(2015, 9, 3));
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            ledger.append(first);
+        }
+        Files.write(directory.resolve("ledger-00000001.seg"), new byte[0]);
+        List<RentalAgreement> actualAfterEmpty = new ArrayList<>();
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            ledger.forEach(actualAfterEmpty::add);
+        }
+        Files.write(directory.resolve("ledger-00000001.seg"), new byte[1024]);
+
+        //when
+        List<RentalAgreement> actual = new ArrayList<>();
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            ledger.append(second);
+            ledger.forEach(actual::add);
+        }
+
+        //then
+        assertEquals(List.of(first), actualAfterEmpty);
+        assertEquals(List.of(first, second), actual);
+    }
+
+    @Test
+    public void find_AgreementWithStore_RestoresStore() throws IOException {
+        //given
+        RentalAgreement rentalAgreement = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+        rentalAgreement.setStoreId("boston");
+        try (RentalLedger ledger = RentalLedger.open(directory, RentalLedger.DEFAULT_SEGMENT_SIZE)) {
+            ledger.append(rentalAgreement);
+        }
+
+        //when
+        List<RentalAgreement> actual;
+        try (RentalLedger ledger = RentalLedger.open(directory, RentalLedger.DEFAULT_SEGMENT_SIZE)) {
+            actual = ledger.find("LADW", LocalDate.MIN, LocalDate.MAX);
+        }
+
+        //then
+        assertEquals(List.of(rentalAgreement), actual);
+        assertEquals("boston", actual.get(0).getStoreId());
+    }
+
+    @Test
+    public void open_VersionOneSegment_ReadsWithoutStoreAndAppendsToNewSegment() throws IOException {
+        //given
+        RentalAgreement first = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+        RentalAgreement second = rentalAgreementService.checkout(JAKR, 6, 0, LocalDate.of(2015, 9, 3));
+        second.setStoreId("boston");
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            ledger.append(first);
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve("ledger-00000000.seg"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 1), 4);
+        }
+
+        //when
+        List<RentalAgreement> actual = new ArrayList<>();
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            ledger.append(second);
+        }
+        try (RentalLedger ledger = RentalLedger.open(directory, 1024)) {
+            ledger.forEach(actual::add);
+        }
+
+        //then
+        assertEquals(List.of(first, second), actual);
+        assertEquals(2, segmentCount());
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.demo;
+
+import com.example.demo.model.CheckoutRequest;
+import com.example.demo.model.CheckoutResult;
+import com.example.demo.model.RentalAgreement;
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReservationIndexTest {
+
+    private static final Tool LADW = new Tool("LADW", "Ladder", "Werner", new BigDecimal("1.99"), true, true, false);
+    private static final Tool JAKR = new Tool("JAKR", "Jackhammer", "Ridgid", new BigDecimal("2.99"), true, false, false);
+
+    private ToolCatalog toolCatalog;
+    private ReservationIndex reservationIndex;
+
+    @BeforeEach
+    public void setup() {
+        toolCatalog = new ToolCatalog(List.of(LADW, JAKR));
+        reservationIndex = new ReservationIndex(toolCatalog);
+    }
+
+    @Test
+    public void tryReserve_OverlappingRange_IsRejected() {
+        //given
+        reservationIndex.tryReserve("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5));
+
+        //when
+        boolean actualOverlapping = reservationIndex.tryReserve("LADW", LocalDate.of(2020, 7, 4), LocalDate.of(2020, 7, 8));
+        boolean actualAdjacent = reservationIndex.tryReserve("LADW", LocalDate.of(2020, 7, 5), LocalDate.of(2020, 7, 8));
+        boolean actualOtherTool = reservationIndex.tryReserve("JAKR", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5));
+        boolean actualEnclosing = reservationIndex.tryReserve("LADW", LocalDate.of(2020, 6, 1), LocalDate.of(2020, 8, 1));
+
+        //then
+        assertFalse(actualOverlapping);
+        assertTrue(actualAdjacent);
+        assertTrue(actualOtherTool);
+        assertFalse(actualEnclosing);
+    }
+
+    @Test
+    public void findAvailableTools_OneToolReserved_ReturnsTheOther() {
+        //given
+        reservationIndex.tryReserve("JAKR", LocalDate.of(2015, 9, 3), LocalDate.of(2015, 9, 9));
+
+        //when
+        List<Tool> actualDuring = reservationIndex.findAvailableTools(LocalDate.of(2015, 9, 8), LocalDate.of(2015, 9, 10));
+        List<Tool> actualAfter = reservationIndex.findAvailableTools(LocalDate.of(2015, 9, 9), LocalDate.of(2015, 9, 10));
+
+        //then
+        assertEquals(List.of(LADW), actualDuring);
+        assertEquals(2, actualAfter.size());
+    }
+
+    @Test
+    public void release_ExistingReservation_MakesDaysAvailableAgain() {
+        //given
+        reservationIndex.tryReserve("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5));
+
+        //when
+        boolean actualReleased = reservationIndex.release("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5));
+
+        //then
+        assertTrue(actualReleased);
+        assertTrue(reservationIndex.isAvailable("LADW", LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 10)));
+    }
+
+    @Test
+    public void tryReserve_EmptyRange_ThrowsException() {
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> reservationIndex.tryReserve("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 2)));
+
+        //then
+        assertTrue(exception.getMessage().contains("Please choose a reservation end date after its start date."));
+    }
+
+    @Test
+    public void releaseEndedBy_PastAndCurrentReservations_DropsOnlyEnded() {
+        //given
+        reservationIndex.tryReserve("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5));
+        reservationIndex.tryReserve("LADW", LocalDate.of(2020, 7, 5), LocalDate.of(2020, 7, 9));
+
+        //when
+        reservationIndex.releaseEndedBy(LocalDate.of(2020, 7, 5));
+
+        //then
+        assertTrue(reservationIndex.isAvailable("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5)));
+        assertFalse(reservationIndex.isAvailable("LADW", LocalDate.of(2020, 7, 8), LocalDate.of(2020, 7, 9)));
+    }
+
+    @Test
+    public void book_ToolAlreadyRentedOut_ThrowsException() {
+        //given
+        RentalAgreementService rentalAgreementService = rentalAgreementService(RentalAgreementSink.NO_OP);
+        rentalAgreementService.book(new CheckoutRequest(LADW, 3, 10, LocalDate.of(2020, 7, 2)));
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> rentalAgreementService.book(new CheckoutRequest(LADW, 1, 0, LocalDate.of(2020, 7, 4))));
+
+        //then
+        assertTrue(exception.getMessage().contains("Please choose different dates."));
+    }
+
+    @Test
+    public void checkout_RepeatedQuote_DoesNotReserve() {
+        //given
+        RentalAgreementService rentalAgreementService = rentalAgreementService(RentalAgreementSink.NO_OP);
+        rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+
+        //when
+        RentalAgreement actualRentalAgreement = rentalAgreementService.checkout(LADW, 3, 10, LocalDate.of(2020, 7, 2));
+
+        //then
+        assertEquals(LocalDate.of(2020, 7, 5), actualRentalAgreement.getDueDate());
+        assertTrue(reservationIndex.isAvailable("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5)));
+    }
+
+    @Test
+    public void checkout_ToolAlreadyBooked_ThrowsExceptionWithoutSendingAgreement() {
+        //given
+        List<RentalAgreement> acceptedAgreements = new ArrayList<>();
+        RentalAgreementService rentalAgreementService = rentalAgreementService(acceptedAgreements::add);
+        rentalAgreementService.book(new CheckoutRequest(LADW, 3, 10, LocalDate.of(2020, 7, 2)));
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> rentalAgreementService.checkout(new CheckoutRequest(LADW, 1, 0, LocalDate.of(2020, 7, 4))));
+        List<CheckoutResult> actualQuotes = rentalAgreementService.checkoutBatch(List.of(new CheckoutRequest(LADW, 1, 0, LocalDate.of(2020, 7, 4))));
+
+        //then
+        assertTrue(exception.getMessage().contains("Please choose different dates."));
+        assertEquals(1, acceptedAgreements.size());
+        assertTrue(actualQuotes.get(0).isValid());
+    }
+
+    @Test
+    public void book_SinkFails_ReleasesReservation() {
+        //given
+        RentalAgreementService rentalAgreementService = rentalAgreementService(rentalAgreement -> {
+            throw new IllegalStateException("sink unavailable");
+        });
+
+        //when
+        assertThrows(IllegalStateException.class,
+                () -> rentalAgreementService.book(new CheckoutRequest(LADW, 3, 10, LocalDate.of(2020, 7, 2))));
+
+        //then
+        assertTrue(reservationIndex.isAvailable("LADW", LocalDate.of(2020, 7, 2), LocalDate.of(2020, 7, 5)));
+    }
+
+    @Test
+    public void extendBooking_IntoNextRental_ThrowsException() {
+        //given
+        RentalAgreementService rentalAgreementService = rentalAgreementService(RentalAgreementSink.NO_OP);
+        RentalAgreement rentalAgreement = rentalAgreementService.book(new CheckoutRequest(LADW, 3, 10, LocalDate.of(2020, 7, 2)));
+        rentalAgreementService.book(new CheckoutRequest(LADW, 2, 0, LocalDate.of(2020, 7, 8)));
+
+        //when
+        RentalAgreement actualExtension = rentalAgreementService.extendBooking(rentalAgreement, 3);
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> rentalAgreementService.extendBooking(actualExtension, 1));
+        Exception unbookedException = assertThrows(IllegalArgumentException.class, () -> rentalAgreementService.extend(actualExtension, 1));
+
+        //then
+        assertEquals(LocalDate.of(2020, 7, 8), actualExtension.getDueDate());
+        assertTrue(exception.getMessage().contains("Please choose fewer extension days."));
+        assertTrue(unbookedException.getMessage().contains("Please choose fewer extension days."));
+    }
+
+    @Test
+    public void tryReserve_ConcurrentOverlappingRequests_NeverGrantsOverlappingReservations() throws Exception {
+        //given
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<LocalDate> reservedFrom = new ConcurrentLinkedQueue<>();
+
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int offset = thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int day = 0; day < 1000; day++) {
+                    LocalDate from = LocalDate.of(2020, 1, 1).plusDays(day * 2L + offset % 2);
+                    if (reservationIndex.tryReserve("LADW", from, from.plusDays(2))) {
+                        reservedFrom.add(from);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        //then
+        List<LocalDate> actualReservedFrom = new ArrayList<>(reservedFrom);
+        Collections.sort(actualReservedFrom);
+        assertFalse(actualReservedFrom.isEmpty());
+        for (int i = 1; i < actualReservedFrom.size(); i++) {
+            assertFalse(actualReservedFrom.get(i).isBefore(actualReservedFrom.get(i - 1).plusDays(2)),
+                    "reservations from " + actualReservedFrom.get(i - 1) + " and " + actualReservedFrom.get(i) + " overlap");
+        }
+        for (LocalDate from : actualReservedFrom) {
+            assertFalse(reservationIndex.isAvailable("LADW", from, from.plusDays(2)));
+        }
+    }
+
+    private RentalAgreementService rentalAgreementService(RentalAgreementSink rentalAgreementSink) {
+        return new RentalAgreementService(new HolidayCheckerService(), toolCatalog, rentalAgreementSink, PricingMode.BIG_DECIMAL,
+                null, reservationIndex, CheckoutMetrics.DISABLED, null, null);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.demo;
+
+import com.example.demo.model.Tool;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ToolCatalogTest {
+
+    @Test
+    public void getTool_DefaultCatalog_ReturnsSharedInstances() throws IOException {
+        //given
+        ToolCatalog toolCatalog = new ToolCatalog(new ClassPathResource("tools.csv"), 0);
+
+        //when
+        Tool firstLookup = toolCatalog.getTool("JAKD");
+        Tool secondLookup = toolCatalog.getTool("JAKD");
+
+        //then
+        assertSame(firstLookup, secondLookup);
+        assertEquals(new Tool("JAKD", "Jackhammer", "DeWalt", new BigDecimal("2.99"), true, false, false), firstLookup);
+        assertEquals(4, toolCatalog.getTools().size());
+        assertSame(toolCatalog.getTool("JAKD").getToolType(), toolCatalog.getTool("JAKR").getToolType());
+    }
+
+    @Test
+    public void getTool_UnknownCode_ThrowsException() throws IOException {
+        //given
+        ToolCatalog toolCatalog = new ToolCatalog(new ClassPathResource("tools.csv"), 0);
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> toolCatalog.getTool("XXXX"));
+
+        //then
+        assertTrue(exception.getMessage().contains("Please enter a valid tool code."));
+        assertNull(toolCatalog.findTool("XXXX"));
+    }
+
+    @Test
+    public void reload_ChangedFile_SwapsCatalogAndBumpsVersion() throws IOException {
+        //given
+        Path file = Files.createTempFile("tools", ".csv");
+        Files.writeString(file, "LADW,Ladder,Werner,1.99,true,true,false\n");
+        ToolCatalog toolCatalog = new ToolCatalog(new FileSystemResource(file), 0);
+        long initialVersion = toolCatalog.getVersion();
+
+        //when
+        Files.writeString(file, "LADW,Ladder,Werner,2.49,true,true,false\nCHNS,Chainsaw,Stihl,1.49,true,false,true\n");
+        toolCatalog.reload();
+
+        //then
+        try {
+            assertEquals(new BigDecimal("2.49"), toolCatalog.getTool("LADW").getDailyCharge());
+            assertEquals("Stihl", toolCatalog.getTool("CHNS").getBrand());
+            assertEquals(initialVersion + 1, toolCatalog.getVersion());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void reload_InvalidFile_KeepsCurrentCatalog() throws IOException {
+        //given
+        Path file = Files.createTempFile("tools", ".csv");
+        Files.writeString(file, "LADW,Ladder,Werner,1.99,true,true,false\n");
+        ToolCatalog toolCatalog = new ToolCatalog(new FileSystemResource(file), 0);
+
+        //when
+        Files.writeString(file, "LADW,Ladder,Werner\n");
+
+        //then
+        try {
+            assertThrows(IllegalArgumentException.class, toolCatalog::reload);
+            assertEquals(new BigDecimal("1.99"), toolCatalog.getTool("LADW").getDailyCharge());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void read_MistypedChargeFlag_ThrowsException() {
+        //given
+        String csv = "LADW,Ladder,Werner,1.99,TRUE,yes,false\n";
+
+        //when
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> ToolCatalog.read(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+
+        //then
+        assertEquals("Invalid tool catalog line 1: weekendCharge must be true or false but was 'yes'.", exception.getMessage());
+    }
+}